@@ -0,0 +1,115 @@
+package com.example.task.config;
+
+import com.example.task.repository.ClusterMessageRepository;
+import com.example.task.repository.JobLockRepository;
+import com.example.task.repository.RateLimitCounterRepository;
+import com.example.task.repository.TokenRevocationRepository;
+import com.example.task.services.ClusterBus;
+import com.example.task.services.JdbcClusterBus;
+import com.example.task.services.JdbcJobLocks;
+import com.example.task.services.JdbcRateLimitCounters;
+import com.example.task.services.JdbcRevocationStore;
+import com.example.task.services.JobLocks;
+import com.example.task.services.LocalClusterBus;
+import com.example.task.services.LocalJobLocks;
+import com.example.task.services.LocalRateLimitCounters;
+import com.example.task.services.LocalRevocationStore;
+import com.example.task.services.RateLimitCounters;
+import com.example.task.services.RevocationStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+/**
+ * Coordination between backend instances: the message bus that keeps in-memory state in step, the
+ * shared rate-limit counters, the access-token revocations and the locks that keep scheduled jobs
+ * to one instance, chosen by {@code tasks.cluster.provider}.
+ * <ul>
+ *     <li>{@code local} (the default) keeps all of them in this process; only correct for one instance.</li>
+ *     <li>{@code jdbc} keeps them in the shared database, so any number of instances can run
+ *     without extra infrastructure, at the cost of a poll per instance every
+ *     {@code tasks.cluster.jdbc.poll-interval}.</li>
+ * </ul>
+ * A broker-backed provider plugs in by declaring its own {@link ClusterBus},
+ * {@link RateLimitCounters}, {@link RevocationStore} and {@link JobLocks} beans under another
+ * provider name.
+ */
+@Slf4j
+@Configuration
+public class ClusterConfig {
+
+    private static final String PROVIDER = "tasks.cluster.provider";
+
+    @Value("${tasks.cluster.rate-limit.max-keys:100000}")
+    private long rateLimitMaxKeys;
+
+    @Value("${tasks.cluster.jdbc.batch-size:500}")
+    private int batchSize;
+
+    @Value("${tasks.cluster.jdbc.message-retention:10m}")
+    private Duration messageRetention;
+
+    @Value("${tasks.cluster.jdbc.counter-retention:1h}")
+    private Duration counterRetention;
+
+    @Value("${tasks.cluster.jdbc.purge-interval:10m}")
+    private Duration purgeInterval;
+
+    @Bean
+    @ConditionalOnProperty(name = PROVIDER, havingValue = "local", matchIfMissing = true)
+    public ClusterBus localClusterBus() {
+        log.info("Using the in-process cluster bus; state is not shared with other instances");
+        return new LocalClusterBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = PROVIDER, havingValue = "local", matchIfMissing = true)
+    public RateLimitCounters localRateLimitCounters() {
+        return new LocalRateLimitCounters(rateLimitMaxKeys);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = PROVIDER, havingValue = "local", matchIfMissing = true)
+    public RevocationStore localRevocationStore() {
+        return new LocalRevocationStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = PROVIDER, havingValue = "local", matchIfMissing = true)
+    public JobLocks localJobLocks() {
+        return new LocalJobLocks();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = PROVIDER, havingValue = "jdbc")
+    public ClusterBus jdbcClusterBus(ClusterMessageRepository repository, PlatformTransactionManager transactionManager,
+                                     JobLocks jobLocks) {
+        log.info("Using the database cluster bus");
+        return new JdbcClusterBus(repository, transactionManager, batchSize, messageRetention, jobLocks, purgeInterval);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = PROVIDER, havingValue = "jdbc")
+    public RateLimitCounters jdbcRateLimitCounters(RateLimitCounterRepository repository,
+                                                   PlatformTransactionManager transactionManager, JobLocks jobLocks) {
+        return new JdbcRateLimitCounters(repository, transactionManager, counterRetention, jobLocks, purgeInterval);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = PROVIDER, havingValue = "jdbc")
+    public RevocationStore jdbcRevocationStore(TokenRevocationRepository repository,
+                                               PlatformTransactionManager transactionManager, JobLocks jobLocks) {
+        return new JdbcRevocationStore(repository, transactionManager, jobLocks, purgeInterval);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = PROVIDER, havingValue = "jdbc")
+    public JobLocks jdbcJobLocks(JobLockRepository repository, PlatformTransactionManager transactionManager) {
+        return new JdbcJobLocks(repository, transactionManager);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.task.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the primary connection pool as OUT_OF_SERVICE while it is saturated: every connection
+ * in use and at least {@code tasks.health.pool.max-waiting} requests queued for one. It is part
+ * of the readiness group only, so a saturated instance is taken out of the load balancer until
+ * it catches up, but never restarted; a restart would not make the database any faster.
+ */
+@Component("connectionPool")
+public class ConnectionPoolHealthIndicator implements HealthIndicator {
+
+    // The primary pool in both single-pool and replica setups; replica pools are not beans
+    @Autowired
+    private HikariDataSource pool;
+
+    @Value("${tasks.health.pool.max-waiting:10}")
+    private int maxWaiting = 10;
+
+    @Override
+    public Health health() {
+        HikariPoolMXBean stats = pool.getHikariPoolMXBean();
+        if (stats == null) {
+            // The pool starts on its first connection, which has not been asked for yet
+            return Health.up().withDetail("started", false).build();
+        }
+        int active = stats.getActiveConnections();
+        int waiting = stats.getThreadsAwaitingConnection();
+        int max = pool.getMaximumPoolSize();
+        boolean saturated = active >= max && waiting >= maxWaiting;
+        return (saturated ? Health.outOfService() : Health.up())
+                .withDetail("active", active)
+                .withDetail("idle", stats.getIdleConnections())
+                .withDetail("max", max)
+                .withDetail("waiting", waiting)
+                .build();
+    }
+}
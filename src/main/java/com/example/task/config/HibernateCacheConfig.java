@@ -0,0 +1,135 @@
+package com.example.task.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-process second-level cache: Caffeine behind JCache, one bounded region per entity
+ * plus the query cache used by {@code UserRepository.findByUsername}.
+ * Every region is created here so that a missing or misspelt region fails at startup.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String USERS_REGION = "users";
+    public static final String TASKS_REGION = "tasks";
+    public static final String USERS_BY_USERNAME_REGION = "users-by-username";
+
+    @Value("${tasks.cache.users.max-size:10000}")
+    private long usersMaxSize;
+
+    @Value("${tasks.cache.users.ttl:10m}")
+    private Duration usersTtl;
+
+    @Value("${tasks.cache.tasks.max-size:50000}")
+    private long tasksMaxSize;
+
+    @Value("${tasks.cache.tasks.ttl:5m}")
+    private Duration tasksTtl;
+
+    @Value("${tasks.cache.users-by-username.max-size:10000}")
+    private long usersByUsernameMaxSize;
+
+    @Value("${tasks.cache.users-by-username.ttl:10m}")
+    private Duration usersByUsernameTtl;
+
+    @Value("${tasks.cache.queries.max-size:1000}")
+    private long queriesMaxSize;
+
+    @Value("${tasks.cache.queries.ttl:1m}")
+    private Duration queriesTtl;
+
+    // A private URI per context keeps test contexts on different databases from sharing entries
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("task-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(USERS_REGION, region(usersMaxSize, usersTtl));
+        cacheManager.createCache(TASKS_REGION, region(tasksMaxSize, tasksTtl));
+        cacheManager.createCache(USERS_BY_USERNAME_REGION, region(usersByUsernameMaxSize, usersByUsernameTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queriesMaxSize, queriesTtl));
+        // Query results are checked against these timestamps, so they must never be evicted or expire
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : new String[]{USERS_REGION, TASKS_REGION}) {
+                bindRegion(registry, statistics, region, s -> s.getDomainDataRegionStatistics(region));
+            }
+            bindRegion(registry, statistics, USERS_BY_USERNAME_REGION,
+                    s -> s.getQueryRegionStatistics(USERS_BY_USERNAME_REGION));
+        };
+    }
+
+    private static void bindRegion(MeterRegistry registry, Statistics statistics, String region,
+                                   Function<Statistics, CacheRegionStatistics> lookup) {
+        counter("hibernate.cache.requests", statistics, region, lookup, CacheRegionStatistics::getHitCount)
+                .tag("result", "hit")
+                .register(registry);
+        counter("hibernate.cache.requests", statistics, region, lookup, CacheRegionStatistics::getMissCount)
+                .tag("result", "miss")
+                .register(registry);
+        counter("hibernate.cache.puts", statistics, region, lookup, CacheRegionStatistics::getPutCount)
+                .register(registry);
+    }
+
+    // Meters hold their state object weakly, so key them on the long-lived Statistics instance
+    private static FunctionCounter.Builder<Statistics> counter(
+            String name, Statistics statistics, String region,
+            Function<Statistics, CacheRegionStatistics> lookup, ToDoubleFunction<CacheRegionStatistics> count) {
+        // Query regions only get statistics once the first cached query has run
+        return FunctionCounter.builder(name, statistics, s -> {
+                    CacheRegionStatistics regionStatistics = lookup.apply(s);
+                    return regionStatistics == null ? 0 : count.applyAsDouble(regionStatistics);
+                })
+                .tag("region", region);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maxSize))
+                .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()))
+                .setStatisticsEnabled(true);
+    }
+}
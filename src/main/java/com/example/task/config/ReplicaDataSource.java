@@ -0,0 +1,190 @@
+package com.example.task.config;
+
+import com.example.task.utils.PrimaryReads;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read-only side of the routing in {@link ReplicaRoutingConfig}: hands out connections from
+ * the replica pools in turn, skipping any that failed their last health or lag check, and falls
+ * back to the primary when none is usable.
+ * <p>
+ * Reads also go to the primary for a caller who wrote within the sticky window, so a client
+ * sees its own writes, and inside {@link PrimaryReads#call}. Callers are told apart by their
+ * authenticated principal; unauthenticated reads never stick.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Cache<String, Boolean> recentWriters;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<HikariDataSource> replicaPools, Duration stickyWindow,
+                             Duration maxLag, String lagQuery) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(stickyWindow).build();
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+    }
+
+    /**
+     * The primary, as handed to the write side of the routing: taking a connection from it
+     * starts the caller's sticky window.
+     */
+    public DataSource writes() {
+        return new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                String principal = currentPrincipal();
+                if (principal != null) {
+                    recentWriters.put(principal, Boolean.TRUE);
+                }
+                return super.getConnection();
+            }
+        };
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PrimaryReads.isForced() || isSticky()) {
+            return primary.getConnection();
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (replica.healthy) {
+                return replica.pool.getConnection();
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica pools use the configured credentials");
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.datasource.replica-check-interval:5s}")
+    public void checkReplicas() {
+        replicas.forEach(this::check);
+    }
+
+    public Map<String, Object> describe() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        replicas.forEach(replica -> details.put(replica.pool.getPoolName(), Map.of(
+                "healthy", replica.healthy,
+                "lagSeconds", replica.lagSeconds)));
+        return details;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        replicas.forEach(replica -> {
+            Gauge.builder("tasks.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("pool", replica.pool.getPoolName())
+                    .description("Whether reads are routed to the replica")
+                    .register(registry);
+            Gauge.builder("tasks.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("pool", replica.pool.getPoolName())
+                    .description("Replication lag at the last check; -1 when unknown")
+                    .baseUnit("seconds")
+                    .register(registry);
+        });
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private void check(Replica replica) {
+        long lag;
+        try (Connection connection = replica.pool.getConnection()) {
+            lag = lagQuery == null ? 0 : readLag(connection);
+        } catch (SQLException e) {
+            log.debug("Replica {} check failed", replica.pool.getPoolName(), e);
+            lag = -1;
+        }
+        boolean healthy = lag >= 0 && lag <= maxLag.toSeconds();
+        if (healthy != replica.healthy) {
+            if (healthy) {
+                log.info("Routing reads to replica {} (lag {}s)", replica.pool.getPoolName(), lag);
+            } else {
+                log.warn("Taking replica {} out of read routing (lag {}s, max {}s)",
+                        replica.pool.getPoolName(), lag, maxLag.toSeconds());
+            }
+        }
+        replica.lagSeconds = lag;
+        replica.healthy = healthy;
+    }
+
+    // Reads MySQL's SHOW REPLICA STATUS by column name; any other query must return the lag first
+    private long readLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return -1;
+            }
+            long lag = rs.getLong(lagColumn(rs.getMetaData()));
+            return rs.wasNull() ? -1 : lag;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String name = metaData.getColumnLabel(i);
+            if (name.equalsIgnoreCase("Seconds_Behind_Source") || name.equalsIgnoreCase("Seconds_Behind_Master")) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    private boolean isSticky() {
+        String principal = currentPrincipal();
+        return principal != null && recentWriters.getIfPresent(principal) != null;
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    // Unhealthy until its first check, so a replica that is down at startup is never used
+    private static final class Replica {
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+        private volatile long lagSeconds = -1;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.task.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to read replicas and everything else to the primary. Only active
+ * when {@code tasks.datasource.replica-urls} lists at least one replica; otherwise Spring Boot's
+ * single auto-configured pool is used as before.
+ * <p>
+ * The lazy proxy only takes a physical connection at a transaction's first statement, by which
+ * point {@code @Transactional(readOnly = true)} has marked the connection read-only and it can
+ * be routed. Replicas share the primary's credentials, driver and pool settings.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("!'${tasks.datasource.replica-urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    @Value("${tasks.datasource.replica-urls}")
+    private List<String> replicaUrls;
+
+    @Value("${tasks.datasource.sticky-window:5s}")
+    private Duration stickyWindow;
+
+    @Value("${tasks.datasource.replica-max-lag:5s}")
+    private Duration maxLag;
+
+    @Value("${tasks.datasource.replica-lag-query:}")
+    private String lagQuery;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            primaryDataSource.copyStateTo(pool);
+            pool.setJdbcUrl(replicaUrls.get(i).trim());
+            pool.setPoolName("replica-" + i);
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(pool);
+        }
+        log.info("Routing read-only transactions across {} replica(s); sticky window {}, max lag {}",
+                pools.size(), stickyWindow, maxLag);
+        return new ReplicaDataSource(primaryDataSource, pools, stickyWindow, maxLag, lagQuery);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(replicaDataSource.writes());
+        routing.setReadOnlyDataSource(replicaDataSource);
+        return routing;
+    }
+
+    // Replicas only degrade read capacity, so the application stays UP and reports them as details
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReplicaDataSource replicaDataSource) {
+        return () -> Health.up().withDetails(replicaDataSource.describe()).build();
+    }
+}
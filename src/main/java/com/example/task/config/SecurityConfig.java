@@ -1,8 +1,14 @@
 package com.example.task.config;
 
 import com.example.task.services.CustomUserDetailsService;
+import com.example.task.utils.BCryptCalibration;
 import com.example.task.utils.JwtFilter;
+import com.example.task.utils.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,24 +23,46 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
+@Slf4j
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
     @Autowired
     private JwtFilter jwtFilter;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 calibrates the strength at startup to the target latency; a fixed value skips calibration
+    @Value("${auth.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${auth.bcrypt.target-latency:250ms}")
+    private Duration bcryptTargetLatency;
+
+    @Value("${auth.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf().disable()
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed bodies finish in an ASYNC dispatch of a request that was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/**",
                                 "/v3/api-docs/**",                  // OpenAPI docs
                                 "/swagger-ui/**",                   // Swagger UI assets
-                                "/swagger-ui.html").permitAll()
+                                "/swagger-ui.html",
+                                "/actuator/health/**",              // Health probes
+                                "/actuator/prometheus").permitAll() // Metrics scrape
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -49,6 +77,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider auth = new DaoAuthenticationProvider();
         auth.setUserDetailsService(userDetailsService);
         auth.setPasswordEncoder(passwordEncoder());
+        // Hashes weaker than the current strength are re-encoded after a successful login
+        auth.setUserDetailsPasswordService(userDetailsService);
         return auth;
     }
 
@@ -59,7 +89,10 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = bcryptStrength > 0 ? bcryptStrength
+                : BCryptCalibration.strengthFor(bcryptTargetLatency, MIN_BCRYPT_STRENGTH, bcryptMaxStrength);
+        log.info("Using BCrypt strength {}", strength);
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(strength), meterRegistry);
     }
 }
 
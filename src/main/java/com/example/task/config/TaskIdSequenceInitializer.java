@@ -0,0 +1,131 @@
+package com.example.task.config;
+
+import com.example.task.entity.Task;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Moves the task id sequence past the ids already in {@code notes_table} before the first insert.
+ * Tasks used to take identity ids, and {@code ddl-auto=update} creates the new sequence at 1 on a
+ * populated database, so without this the first pooled block would collide with existing rows.
+ * <p>
+ * The pooled optimizer hands out the {@value Task#ID_ALLOCATION_SIZE} ids up to the value it
+ * reads, so the next value must be at least {@code MAX(id) + }{@value Task#ID_ALLOCATION_SIZE}.
+ * The sequence is only ever raised, never dropped; once it is ahead of the table this is a single
+ * read per start. Without the tables yet ({@code ddl-auto=none} on an empty schema) it does nothing.
+ * <p>
+ * The switch itself needs a non-rolling deploy: pods still on identity ids would insert
+ * {@code MAX(id) + 1} while upgraded ones hand out the same ids from the sequence.
+ */
+@Slf4j
+@Component
+public class TaskIdSequenceInitializer {
+
+    // On MySQL Hibernate emulates the sequence with a one-row table holding the next value
+    private static final String TABLE_VALUE_COLUMN = "next_val";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // Runs while the context starts: after the schema update, before any request can insert a task
+    @PostConstruct
+    public void seed() throws SQLException {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        seed(dataSource, dialect.getSequenceSupport());
+    }
+
+    void seed(DataSource dataSource, SequenceSupport sequences) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tableExists(connection, "notes_table")) {
+                log.debug("No notes_table yet, leaving {} as it is", Task.ID_SEQUENCE);
+                return;
+            }
+            Long maxId = queryLong(connection, "SELECT MAX(id) FROM notes_table");
+            if (maxId == null) {
+                return;
+            }
+            long required = maxId + Task.ID_ALLOCATION_SIZE;
+            if (!sequences.supportsSequences()) {
+                seedTable(connection, required);
+            } else {
+                seedSequence(connection, sequences, required);
+            }
+        }
+    }
+
+    // A conditional update, so instances starting together can only ever move it forward
+    private void seedTable(Connection connection, long required) throws SQLException {
+        if (!tableExists(connection, Task.ID_SEQUENCE)) {
+            log.warn("No {} table to seed; create it as described in the upgrade notes", Task.ID_SEQUENCE);
+            return;
+        }
+        String sql = "UPDATE " + Task.ID_SEQUENCE + " SET " + TABLE_VALUE_COLUMN + " = ? WHERE "
+                + TABLE_VALUE_COLUMN + " < ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, required);
+            statement.setLong(2, required);
+            if (statement.executeUpdate() > 0) {
+                log.info("Moved {} to {}, past the existing task ids", Task.ID_SEQUENCE, required);
+            }
+        }
+    }
+
+    // Reading a native sequence takes a value, which costs one block of ids per start
+    private void seedSequence(Connection connection, SequenceSupport sequences, long required) throws SQLException {
+        Long next;
+        try {
+            next = queryLong(connection, sequences.getSequenceNextValString(Task.ID_SEQUENCE));
+        } catch (SQLException e) {
+            log.warn("Could not read {}; create it as described in the upgrade notes", Task.ID_SEQUENCE, e);
+            return;
+        }
+        if (next != null && next >= required) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE " + Task.ID_SEQUENCE + " RESTART WITH " + required);
+        }
+        log.info("Restarted {} at {}, past the existing task ids", Task.ID_SEQUENCE, required);
+    }
+
+    private static boolean tableExists(Connection connection, String name) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String candidate : new String[]{name, name.toUpperCase(Locale.ROOT)}) {
+            try (ResultSet rs = metaData.getTables(connection.getCatalog(), null, candidate, null)) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            if (!rs.next()) {
+                return null;
+            }
+            long value = rs.getLong(1);
+            return rs.wasNull() ? null : value;
+        }
+    }
+}
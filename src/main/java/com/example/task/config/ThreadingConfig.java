@@ -0,0 +1,45 @@
+package com.example.task.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Reports which execution mode requests are served in. Virtual threads are switched on with
+ * {@code spring.threads.virtual.enabled} and only take effect on a Java 21+ runtime; elsewhere
+ * Spring Boot quietly keeps the Tomcat platform-thread pool, so say so at startup.
+ */
+@Slf4j
+@Configuration
+public class ThreadingConfig {
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualRequested;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int maxPlatformThreads;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportExecutionMode() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Serving requests on virtual threads; at most {} run database work at once (Hikari pool)",
+                    connectionPoolSize);
+        } else if (virtualRequested) {
+            log.warn("Virtual threads requested but the runtime is Java {}; serving on up to {} platform threads",
+                    Runtime.version().feature(), maxPlatformThreads);
+        } else {
+            log.info("Serving requests on up to {} platform threads", maxPlatformThreads);
+        }
+    }
+}
@@ -2,22 +2,41 @@ package com.example.task.controllers;
 
 import com.example.task.dto.LoginRequestDTO;
 import com.example.task.dto.LoginResponseDTO;
+import com.example.task.dto.RefreshRequestDTO;
 import com.example.task.dto.RegisterRequestDTO;
 import com.example.task.entity.User;
+import com.example.task.exception.InvalidRefreshTokenException;
 import com.example.task.repository.UserRepository;
+import com.example.task.services.ClusterCacheSync;
 import com.example.task.services.CustomUserDetailsService;
+import com.example.task.services.LoginRateLimiter;
+import com.example.task.services.PasswordHashingService;
+import com.example.task.services.RefreshTokenService;
+import com.example.task.utils.JwtTokenCache;
 import com.example.task.utils.JwtUtil;
+import com.example.task.utils.PrimaryReads;
+import com.example.task.utils.TokenRevocationList;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
@@ -37,31 +56,100 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationList revocations;
+
+    @Autowired
+    private JwtTokenCache tokenCache;
+
+    @Autowired
+    private ClusterCacheSync clusterCacheSync;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    // BCrypt runs on the bounded hashing pool; the request thread is released while it waits
     @PostMapping("/login")
-    public ResponseEntity<?> createToken(@RequestBody LoginRequestDTO request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-        String token = jwtUtil.generateToken(userDetails.getUsername());
-        return ResponseEntity.ok(new LoginResponseDTO(token));
+    public CompletableFuture<ResponseEntity<?>> createToken(@RequestBody LoginRequestDTO request,
+                                                           HttpServletRequest httpRequest) {
+        loginRateLimiter.check(request.getUsername(), httpRequest.getRemoteAddr());
+        // On the primary, so an account can log in straight after registering even with read replicas
+        return passwordHashingService.submit(() -> PrimaryReads.call(() -> {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+            );
+
+            User user = userRepository.findByUsername(authentication.getName())
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            return ResponseEntity.ok(issueTokens(user, authentication.getAuthorities(),
+                    refreshTokenService.issue(user.getId())));
+        }));
+    }
+
+    // Rotates the refresh token; the user is looked up again so deleted accounts cannot refresh
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDTO> refresh(@RequestBody RefreshRequestDTO request) {
+        if (request.getRefreshToken() == null) {
+            throw new InvalidRefreshTokenException();
+        }
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = userRepository.findById(rotation.userId())
+                .orElseThrow(InvalidRefreshTokenException::new);
+        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
+
+        return ResponseEntity.ok(issueTokens(user, userDetails.getAuthorities(), rotation.refreshToken()));
+    }
+
+    // Revokes the refresh token family and, when one is presented, the current access token
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody(required = false) RefreshRequestDTO request,
+                                    @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false)
+                                    String authHeader) {
+        if (request != null && request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7);
+            try {
+                revocations.revoke(jwtUtil.parse(token));
+                tokenCache.evict(token);
+            } catch (JwtException e) {
+                // Already invalid, nothing left to revoke
+            }
+        }
+        return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequestDTO request) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody RegisterRequestDTO request) {
         if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-            return ResponseEntity.badRequest().body("Username already exists");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Username already exists"));
         }
 
-        User user = new User();
-        user.setName(request.getUsername());
-        user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setTasksCount(0);
+        return passwordHashingService.submit(() -> {
+            User user = new User();
+            user.setName(request.getUsername());
+            user.setUsername(request.getUsername());
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setTasksCount(0);
+
+            userRepository.save(user);
+            // Other instances may have cached the username as not found
+            clusterCacheSync.userChanged(user.getId());
+            return ResponseEntity.ok("User registered successfully");
+        });
+    }
 
-        userRepository.save(user);
-        return ResponseEntity.ok("User registered successfully");
+    private LoginResponseDTO issueTokens(User user, Collection<? extends GrantedAuthority> authorities,
+                                         String refreshToken) {
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), authorities);
+        return new LoginResponseDTO(token, refreshToken, jwtUtil.getAccessTokenTtl().toSeconds());
     }
 }
 
@@ -1,135 +1,339 @@
 package com.example.task.controllers;
 
+import com.example.task.dto.ApiResponse;
+import com.example.task.dto.BulkResultDTO;
+import com.example.task.dto.PageDTO;
+import com.example.task.dto.ResponseShell;
+import com.example.task.dto.TaskDayCountDTO;
+import com.example.task.dto.TaskPageDTO;
 import com.example.task.dto.TaskResponseDTO;
+import com.example.task.dto.TaskSyncDTO;
 import com.example.task.entity.Task;
+import com.example.task.repository.TaskFilter;
+import com.example.task.services.TaskEventBroadcaster;
+import com.example.task.services.TaskListingCache;
+import com.example.task.services.TaskSearchService;
 import com.example.task.services.TaskService;
+import com.example.task.services.TaskSyncService;
+import com.example.task.utils.AuthenticatedUser;
+import com.example.task.utils.ETags;
+import com.example.task.utils.RequestSummary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
-@Slf4j
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
 
+    private static final ResponseShell TASKS_LISTED = ResponseShell.of("Success", "", 200, "task");
+    private static final ResponseShell TASKS_FETCHED = ResponseShell.of("Success", "Tasks fetched", 200, "task");
+    private static final ResponseShell TASK_FOUND = ResponseShell.of("Success", "Task found", 200, "task");
+    private static final ResponseShell TASK_NOT_FOUND = ResponseShell.of("error", "Task not found", 404, "task");
+    private static final ResponseShell TASK_CREATED = ResponseShell.of("Success", "Task Created", 201, "task");
+    private static final ResponseShell TASK_NOT_CREATED = ResponseShell.of("Failure", "Task not created", 400, "task");
+    private static final ResponseShell TASK_UPDATED = ResponseShell.of("Success", "Task updated", 200, "task");
+    private static final ResponseShell TASK_DELETED = ResponseShell.of("Success", "Task deleted", 200, "task");
+    private static final ResponseShell TASK_NOT_DELETED = ResponseShell.of("error", "Task not deleted", 400, "task");
+    private static final ResponseShell TASKS_SYNCED = ResponseShell.of("Success", "Tasks synced", 200, "sync");
+    private static final ResponseShell TASKS_COUNTED = ResponseShell.of("Success", "Tasks counted by day", 200, "days");
+    private static final ResponseShell TASKS_SEARCHED = ResponseShell.of("Success", "Tasks searched", 200, "result");
+    private static final ResponseShell SEARCH_REJECTED = ResponseShell.of("error", "Search query must not be blank", 400, "result");
+    private static final ResponseShell BULK_PROCESSED = ResponseShell.of("Success", "Bulk request processed", 200, "result");
+    private static final ResponseShell BULK_PARTIAL = ResponseShell.of("Partial", "Some items failed", 200, "result");
+    private static final ResponseShell BULK_REJECTED = ResponseShell.of("error", "Batch must contain between 1 and the maximum number of items", 400, "result");
+
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskSyncService taskSyncService;
+
+    @Autowired
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private TaskListingCache taskListingCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tasks.bulk.max-size:500}")
+    private int maxBulkSize;
+
     @GetMapping("/all/{id}")
-    ResponseEntity<Map<String, Object>> getAllTasks(@PathVariable Long id) {
-        log.info("Fetching all tasks for user with ID: {}", id);
-        Map<String, Object> body = new HashMap<>();
-        body.put("status", "Success");
-        body.put("message", "");
-        body.put("code", 200);
-        body.put("task", taskService.getAllTasks(id));
-        return new ResponseEntity<>(body, HttpStatus.OK);
+    ResponseEntity<byte[]> getAllTasks(@PathVariable Long id,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer limit) {
+        RequestSummary.put("userId", id);
+        TaskFilter filter = TaskFilter.forUser(id);
+        return cached(filter, cursor, limit, () -> listing(TASKS_LISTED, cursor, limit,
+                () -> taskService.getAllTasks(id),
+                () -> taskService.getTaskPage(filter, cursor, limit)));
+    }
+
+    @GetMapping(value = "/all/{id}", params = "stream=true")
+    ResponseEntity<StreamingResponseBody> streamAllTasks(@PathVariable Long id) {
+        RequestSummary.put("userId", id);
+        RequestSummary.put("stream", true);
+        return streamEnvelope(TASKS_LISTED, sink -> taskService.streamTasks(TaskFilter.forUser(id), sink));
+    }
+
+    // Changes to the caller's tasks since the token; without a token, a full snapshot to start from
+    @GetMapping("/sync")
+    ResponseEntity<ApiResponse<TaskSyncDTO>> syncTasks(@RequestParam(required = false) String token,
+                                                       @AuthenticationPrincipal AuthenticatedUser principal) {
+        RequestSummary.put("userId", principal.getId());
+        TaskSyncDTO sync = taskSyncService.sync(principal.getId(), token);
+
+        RequestSummary.put("updated", sync.getUpdated().size());
+        RequestSummary.put("deleted", sync.getDeleted().size());
+        return new ResponseEntity<>(ApiResponse.of(TASKS_SYNCED, sync), HttpStatus.OK);
+    }
+
+    // Ranked full-text search over the caller's task titles and descriptions; "word*" matches a prefix
+    @GetMapping("/search")
+    ResponseEntity<ApiResponse<PageDTO<TaskResponseDTO>>> searchTasks(@RequestParam(required = false) String q,
+                                                                      @RequestParam(required = false) Integer page,
+                                                                      @RequestParam(required = false) Integer size,
+                                                                      @AuthenticationPrincipal AuthenticatedUser principal) {
+        RequestSummary.put("userId", principal.getId());
+        if (q == null || q.isBlank()) {
+            return new ResponseEntity<>(ApiResponse.empty(SEARCH_REJECTED), HttpStatus.BAD_REQUEST);
+        }
+        PageDTO<TaskResponseDTO> results = taskSearchService.search(principal.getId(), q, page, size);
+
+        RequestSummary.put("page", results.getPage());
+        RequestSummary.put("results", results.getContent().size());
+        return new ResponseEntity<>(ApiResponse.of(TASKS_SEARCHED, results), HttpStatus.OK);
+    }
+
+    // Pushes created/updated/deleted events for the caller's tasks; a "resync" event means call /sync
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    ResponseEntity<SseEmitter> streamTaskEvents(@AuthenticationPrincipal AuthenticatedUser principal) {
+        RequestSummary.put("userId", principal.getId());
+        RequestSummary.put("stream", "events");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                // Stops nginx-style proxies from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(taskEventBroadcaster.subscribe(principal.getId()));
     }
 
     @GetMapping("/{id}")
-    ResponseEntity<Map<String, Object>> getTask(@PathVariable Long id) {
-        log.info("Fetching task with ID: {}", id);
-        Map<String, Object> body = new HashMap<>();
-        Optional<TaskResponseDTO> task = taskService.getTaskById(id);
+    ResponseEntity<ApiResponse<TaskResponseDTO>> getTask(@PathVariable Long id,
+                                                         @AuthenticationPrincipal AuthenticatedUser principal) {
+        RequestSummary.put("taskId", id);
+        Optional<TaskResponseDTO> task = taskService.getTaskById(id, principal.getId());
 
         if (task.isEmpty()) {
-            log.warn("Task with ID {} not found", id);
-            body.put("status", "error");
-            body.put("message", "Task not found");
-            body.put("code", 404);
-            body.put("task", null);
-            return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+            return new ResponseEntity<>(ApiResponse.empty(TASK_NOT_FOUND), HttpStatus.NOT_FOUND);
         }
 
-        log.info("Task with ID {} retrieved successfully", id);
-        body.put("status", "Success");
-        body.put("message", "Task found");
-        body.put("code", 200);
-        body.put("task", task.get());
-        return new ResponseEntity<>(body, HttpStatus.OK);
+        // A matching If-None-Match turns this into a 304 before anything is serialized
+        return ResponseEntity.ok()
+                .eTag(ETags.forVersion(task.get().getVersion()))
+                .body(ApiResponse.of(TASK_FOUND, task.get()));
     }
 
+    // from/to narrow the listing to a range of days, both inclusive, alongside or instead of date
     @GetMapping("/filter")
-    public ResponseEntity<Map<String, Object>> getFilteredTasks(
+    public ResponseEntity<byte[]> getFilteredTasks(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = true) Long userId,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        RequestSummary.put("userId", userId);
+        TaskFilter filter = TaskFilter.of(userId, date, completed).between(from, to);
+        return cached(filter, cursor, limit, () -> listing(TASKS_FETCHED, cursor, limit,
+                () -> taskService.getFilteredTasks(filter),
+                () -> taskService.getTaskPage(filter, cursor, limit)));
+    }
+
+    @GetMapping(value = "/filter", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamFilteredTasks(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             @RequestParam(required = true) Long userId,
             @RequestParam(required = false) Boolean completed) {
 
-        log.info("Filtering tasks for user ID: {}, date: {}, completed: {}", userId, date, completed);
-        Map<String, Object> body = new HashMap<>();
-        body.put("status", "Success");
-        body.put("message", "Tasks fetched");
-        body.put("code", 200);
-        body.put("task", taskService.getFilteredTasks(date, completed, userId));
-        return new ResponseEntity<>(body, HttpStatus.OK);
+        RequestSummary.put("userId", userId);
+        RequestSummary.put("stream", true);
+        TaskFilter filter = TaskFilter.of(userId, date, completed).between(from, to);
+        return streamEnvelope(TASKS_FETCHED, sink -> taskService.streamTasks(filter, sink));
     }
 
-    @PostMapping("/{id}")
-    ResponseEntity<Map<String, Object>> saveTask(@Valid @RequestBody Task task, @PathVariable Long id) {
-        log.info("Creating new task for user ID: {}", id);
-        Map<String, Object> body = new HashMap<>();
-        Optional<TaskResponseDTO> saved = taskService.saveTask(task, id);
+    // Completed and pending counts for each day in [from, to] that has tasks, for calendar views
+    @GetMapping("/calendar")
+    ResponseEntity<ApiResponse<List<TaskDayCountDTO>>> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        RequestSummary.put("userId", principal.getId());
+        List<TaskDayCountDTO> days = taskService.getCalendar(principal.getId(), from, to);
+
+        RequestSummary.put("days", days.size());
+        return new ResponseEntity<>(ApiResponse.of(TASKS_COUNTED, days), HttpStatus.OK);
+    }
+
+    // Created for the caller like the bulk create; the path id is still accepted from existing clients but not used
+    @PostMapping({"", "/{id}"})
+    ResponseEntity<ApiResponse<TaskResponseDTO>> saveTask(@Valid @RequestBody Task task,
+                                                          @AuthenticationPrincipal AuthenticatedUser principal) {
+        RequestSummary.put("userId", principal.getId());
+        Optional<TaskResponseDTO> saved = taskService.saveTask(task, principal.getId());
 
         if (saved.isEmpty()) {
-            log.error("Failed to create task for user ID: {}", id);
-            body.put("status", "Failure");
-            body.put("message", "Task not created");
-            body.put("code", 400);
-            body.put("task", null);
-            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+            return new ResponseEntity<>(ApiResponse.empty(TASK_NOT_CREATED), HttpStatus.BAD_REQUEST);
         }
 
-        log.info("Task created successfully for user ID: {}", id);
-        body.put("status", "Success");
-        body.put("message", "Task Created");
-        body.put("code", 201);
-        body.put("task", saved.get());
-        return new ResponseEntity<>(body, HttpStatus.CREATED);
+        RequestSummary.put("taskId", saved.get().getId());
+        return new ResponseEntity<>(ApiResponse.of(TASK_CREATED, saved.get()), HttpStatus.CREATED);
     }
 
     @PutMapping("/update")
-    ResponseEntity<Map<String, Object>> updateTask(@Valid @RequestBody Task task) {
-        log.info("Updating task with ID: {}", task.getId());
-        Map<String, Object> body = new HashMap<>();
-        Optional<TaskResponseDTO> updated = taskService.updateTask(task);
+    ResponseEntity<ApiResponse<TaskResponseDTO>> updateTask(@Valid @RequestBody Task task,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                            String ifMatch,
+                                                            @AuthenticationPrincipal AuthenticatedUser principal) {
+        RequestSummary.put("taskId", task.getId());
+        Optional<TaskResponseDTO> updated = taskService.updateTask(task, principal.getId(), ETags.parseVersion(ifMatch));
 
         if (updated.isPresent()) {
-            log.info("Task with ID {} updated successfully", task.getId());
-        } else {
-            log.warn("Failed to update task. Task with ID {} not found", task.getId());
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (updated.get().getVersion() != null) {
+                response.eTag(ETags.forVersion(updated.get().getVersion()));
+            }
+            return response.body(ApiResponse.of(TASK_UPDATED, updated.get()));
         }
 
-        body.put("status", updated.isPresent() ? "Success" : "error");
-        body.put("message", updated.isPresent() ? "Task updated" : "Task not found");
-        body.put("code", updated.isPresent() ? 200 : 404);
-        body.put("task", updated.orElse(null));
-
-        return new ResponseEntity<>(body, updated.isPresent() ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(ApiResponse.empty(TASK_NOT_FOUND), HttpStatus.BAD_REQUEST);
     }
 
     @DeleteMapping("/{id}")
-    ResponseEntity<Map<String, Object>> deleteTask(@PathVariable Long id) {
-        log.info("Deleting task with ID: {}", id);
-        Map<String, Object> body = new HashMap<>();
-        boolean deleted = taskService.deleteTask(id);
-
-        if (deleted) {
-            log.info("Task with ID {} deleted successfully", id);
-        } else {
-            log.warn("Failed to delete task. Task with ID {} not found", id);
+    ResponseEntity<ApiResponse<Void>> deleteTask(@PathVariable Long id,
+                                                 @AuthenticationPrincipal AuthenticatedUser principal) {
+        RequestSummary.put("taskId", id);
+        boolean deleted = taskService.deleteTask(id, principal.getId());
+
+        return new ResponseEntity<>(ApiResponse.empty(deleted ? TASK_DELETED : TASK_NOT_DELETED),
+                deleted ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
+    }
+
+    // Tasks are always created for the caller; the path id is still accepted from existing clients but not used
+    @PostMapping({"/bulk", "/bulk/{id}"})
+    ResponseEntity<ApiResponse<BulkResultDTO>> saveTasks(@RequestBody List<Task> tasks,
+                                                         @AuthenticationPrincipal AuthenticatedUser principal) {
+        RequestSummary.put("userId", principal.getId());
+        RequestSummary.put("batchSize", tasks.size());
+        if (!acceptableBatch(tasks)) {
+            return new ResponseEntity<>(ApiResponse.empty(BULK_REJECTED), HttpStatus.BAD_REQUEST);
         }
+        return bulkResponse(taskService.createTasks(tasks, principal.getId()));
+    }
 
-        body.put("status", deleted ? "Success" : "error");
-        body.put("message", deleted ? "Task deleted" : "Task not deleted");
-        body.put("code", deleted ? 200 : 400);
-        body.put("task", null);
+    @PutMapping("/bulk")
+    ResponseEntity<ApiResponse<BulkResultDTO>> updateTasks(@RequestBody List<Task> tasks,
+                                                           @AuthenticationPrincipal AuthenticatedUser principal) {
+        RequestSummary.put("userId", principal.getId());
+        RequestSummary.put("batchSize", tasks.size());
+        if (!acceptableBatch(tasks)) {
+            return new ResponseEntity<>(ApiResponse.empty(BULK_REJECTED), HttpStatus.BAD_REQUEST);
+        }
+        return bulkResponse(taskService.updateTasks(tasks, principal.getId()));
+    }
+
+    @DeleteMapping("/bulk")
+    ResponseEntity<ApiResponse<BulkResultDTO>> deleteTasks(@RequestBody List<Long> ids,
+                                                           @AuthenticationPrincipal AuthenticatedUser principal) {
+        RequestSummary.put("userId", principal.getId());
+        RequestSummary.put("batchSize", ids.size());
+        if (!acceptableBatch(ids)) {
+            return new ResponseEntity<>(ApiResponse.empty(BULK_REJECTED), HttpStatus.BAD_REQUEST);
+        }
+        return bulkResponse(taskService.deleteTasks(ids, principal.getId()));
+    }
+
+    private boolean acceptableBatch(List<?> items) {
+        return !items.isEmpty() && items.size() <= maxBulkSize;
+    }
+
+    // Per-item failures are reported in the body; the batch itself was processed either way
+    private ResponseEntity<ApiResponse<BulkResultDTO>> bulkResponse(BulkResultDTO result) {
+        RequestSummary.put("succeeded", result.getSucceeded());
+        RequestSummary.put("failed", result.getFailed());
+        return new ResponseEntity<>(ApiResponse.of(result.isAllSucceeded() ? BULK_PROCESSED : BULK_PARTIAL, result),
+                HttpStatus.OK);
+    }
+
+    // Serves the pre-encoded listing and its ETag; a matching If-None-Match still becomes a 304
+    private ResponseEntity<byte[]> cached(TaskFilter filter, String cursor, Integer limit,
+                                          Supplier<ApiResponse<List<TaskResponseDTO>>> body) {
+        TaskListingCache.Listing listing = taskListingCache.get(filter, cursor, limit, body);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(listing.eTag())
+                .body(listing.body());
+    }
+
+    // Pagination is opt-in so existing clients keep receiving the full list
+    private ApiResponse<List<TaskResponseDTO>> listing(ResponseShell shell, String cursor, Integer limit,
+                                                       Supplier<List<TaskResponseDTO>> all,
+                                                       Supplier<TaskPageDTO> page) {
+        if (cursor == null && limit == null) {
+            return ApiResponse.of(shell, all.get());
+        }
+        TaskPageDTO result = page.get();
+        return ApiResponse.of(shell, result.getTasks()).withNextCursor(result.getNextCursor());
+    }
 
-        return new ResponseEntity<>(body, deleted ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
+    // Writes the usual success envelope, emitting the task array element by element from a DB cursor
+    private ResponseEntity<StreamingResponseBody> streamEnvelope(ResponseShell shell,
+                                                                 Consumer<Consumer<TaskResponseDTO>> source) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                shell.writeHeader(gen);
+                gen.writeStartArray();
+                source.accept(dto -> {
+                    try {
+                        writer.writeValue(gen, dto);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
@@ -1,12 +1,16 @@
 package com.example.task.controllers;
 
+import com.example.task.dto.ApiResponse;
+import com.example.task.dto.PageDTO;
+import com.example.task.dto.ResponseShell;
 import com.example.task.dto.UserProfileRequestDTO;
 import com.example.task.dto.UserResponseDTO;
+import com.example.task.dto.UserTasksDTO;
 import com.example.task.entity.Task;
 import com.example.task.entity.User;
 import com.example.task.services.UserService;
+import com.example.task.utils.RequestSummary;
 import jakarta.validation.Valid;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,71 +21,57 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
 
-@Slf4j
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final ResponseShell USER_FOUND = ResponseShell.of("Success", "User found", 200, "user");
+    private static final ResponseShell USER_NOT_FOUND = ResponseShell.of("error", "User not found", 404, "user");
+    private static final ResponseShell USERS_LISTED = ResponseShell.of("Success", "", 200, "user");
+    private static final ResponseShell USER_UPDATED = ResponseShell.of("Success", "User updated", 201, "user");
+    private static final ResponseShell USER_NOT_UPDATED = ResponseShell.of("error", "User not updated", 400, "user");
+    private static final ResponseShell USER_DELETED = ResponseShell.of("Success", "User deleted", 200, "user");
+    private static final ResponseShell USER_NOT_DELETED = ResponseShell.of("error", "User not deleted", 400, "user");
+
     @Autowired
     private UserService userService;
 
     @GetMapping("/{id}/all")
-    public ResponseEntity<Map<String, Object>> getUserAll(@PathVariable Long id) {
-        log.info("Fetching full user info (with tasks) for user ID: {}", id);
-        Optional<User> user = userService.getUserAll(id);
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("status", user.isPresent() ? "Success" : "error");
-        body.put("message", user.isPresent() ? "User found" : "User not found");
-        body.put("code", user.isPresent() ? 200 : 404);
-        body.put("user", user.orElse(null));
+    public ResponseEntity<ApiResponse<UserTasksDTO>> getUserAll(@PathVariable Long id,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer limit) {
+        RequestSummary.put("userId", id);
+        Optional<UserTasksDTO> user = userService.getUserWithTasks(id, cursor, limit);
 
         if (user.isEmpty()) {
-            log.warn("User with ID {} not found", id);
-        } else {
-            log.info("User with ID {} retrieved successfully", id);
+            return new ResponseEntity<>(ApiResponse.empty(USER_NOT_FOUND), HttpStatus.NOT_FOUND);
         }
 
-        return new ResponseEntity<>(body, user.isPresent() ? HttpStatus.OK : HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(ApiResponse.of(USER_FOUND, user.get()), HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getUser(@PathVariable Long id) {
-        log.info("Fetching user basic details for ID: {}", id);
+    public ResponseEntity<ApiResponse<UserResponseDTO>> getUser(@PathVariable Long id) {
+        RequestSummary.put("userId", id);
         Optional<UserResponseDTO> userDto = userService.getUserById(id);
 
-        Map<String, Object> body = new HashMap<>();
         if (userDto.isEmpty()) {
-            log.warn("User with ID {} not found", id);
-            body.put("status", "error");
-            body.put("message", "User not found");
-            body.put("code", 404);
-            body.put("user", null);
-            return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+            return new ResponseEntity<>(ApiResponse.empty(USER_NOT_FOUND), HttpStatus.NOT_FOUND);
         }
 
-        log.info("User with ID {} found", id);
-        body.put("status", "Success");
-        body.put("message", "User found");
-        body.put("code", 200);
-        body.put("user", userDto.get());
-
-        return new ResponseEntity<>(body, HttpStatus.OK);
+        return new ResponseEntity<>(ApiResponse.of(USER_FOUND, userDto.get()), HttpStatus.OK);
     }
 
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllUsers() {
-        log.info("Fetching all users");
-        List<User> users = userService.getAllUsers();
-
-        log.info("Total users retrieved: {}", users.size());
-        Map<String, Object> body = new HashMap<>();
-        body.put("status", "Success");
-        body.put("message", "");
-        body.put("code", 200);
-        body.put("user", users);
-
-        return new ResponseEntity<>(body, HttpStatus.OK);
+    public ResponseEntity<ApiResponse<PageDTO<UserResponseDTO>>> getAllUsers(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        PageDTO<UserResponseDTO> users = userService.getUserPage(page, size, sort);
+
+        RequestSummary.put("page", users.getPage());
+        RequestSummary.put("results", users.getContent().size());
+        return new ResponseEntity<>(ApiResponse.of(USERS_LISTED, users), HttpStatus.OK);
     }
 
     @PutMapping
@@ -98,43 +88,23 @@ public class UserController {
     }
 
     @PutMapping("/update")
-    public ResponseEntity<Map<String, Object>> updateUser(@Valid @RequestBody User user) {
-        log.info("Updating user with ID: {}", user.getId());
+    public ResponseEntity<ApiResponse<User>> updateUser(@Valid @RequestBody User user) {
+        RequestSummary.put("userId", user.getId());
         Optional<User> updatedUser = userService.updateUser(user);
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("status", updatedUser.isPresent() ? "Success" : "error");
-        body.put("message", updatedUser.isPresent() ? "User updated" : "User not updated");
-        body.put("code", updatedUser.isPresent() ? 201 : 400);
-        body.put("user", updatedUser.orElse(null));
-
         if (updatedUser.isPresent()) {
-            log.info("User with ID {} updated successfully", user.getId());
-        } else {
-            log.warn("Failed to update user with ID {}", user.getId());
+            return new ResponseEntity<>(ApiResponse.of(USER_UPDATED, updatedUser.get()), HttpStatus.CREATED);
         }
 
-        return new ResponseEntity<>(body, updatedUser.isPresent() ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(ApiResponse.empty(USER_NOT_UPDATED), HttpStatus.BAD_REQUEST);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteUser(@PathVariable Long id) {
-        log.info("Attempting to delete user with ID: {}", id);
+    public ResponseEntity<ApiResponse<Void>> deleteUser(@PathVariable Long id) {
+        RequestSummary.put("userId", id);
         boolean deleted = userService.deleteUser(id);
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("status", deleted ? "Success" : "error");
-        body.put("message", deleted ? "User deleted" : "User not deleted");
-        body.put("code", deleted ? 200 : 400);
-        body.put("user", null);
-
-        if (deleted) {
-            log.info("User with ID {} deleted successfully", id);
-        } else {
-            log.warn("User with ID {} could not be deleted", id);
-        }
-
-        return new ResponseEntity<>(body, deleted ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(ApiResponse.empty(deleted ? USER_DELETED : USER_NOT_DELETED),
+                deleted ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
     }
 }
-
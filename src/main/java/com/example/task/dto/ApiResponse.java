@@ -0,0 +1,83 @@
+package com.example.task.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Immutable response envelope: a constant {@link ResponseShell} plus the payload.
+ * Serializes to the same {@code status/message/code/<payload>} object the
+ * controllers used to build as a HashMap, but only the payload goes through
+ * reflective serialization.
+ */
+@JsonSerialize(using = ApiResponse.Serializer.class)
+public final class ApiResponse<T> {
+
+    private final ResponseShell shell;
+    private final T payload;
+    private final boolean paged;
+    private final String nextCursor;
+
+    private ApiResponse(ResponseShell shell, T payload, boolean paged, String nextCursor) {
+        this.shell = shell;
+        this.payload = payload;
+        this.paged = paged;
+        this.nextCursor = nextCursor;
+    }
+
+    public static <T> ApiResponse<T> of(ResponseShell shell, T payload) {
+        return new ApiResponse<>(shell, payload, false, null);
+    }
+
+    public static <T> ApiResponse<T> empty(ResponseShell shell) {
+        return new ApiResponse<>(shell, null, false, null);
+    }
+
+    /**
+     * Marks the payload as one page of a keyset-paginated listing; a null cursor means the last page.
+     */
+    public ApiResponse<T> withNextCursor(String nextCursor) {
+        return new ApiResponse<>(shell, payload, true, nextCursor);
+    }
+
+    public ResponseShell getShell() {
+        return shell;
+    }
+
+    public T getPayload() {
+        return payload;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    static class Serializer extends StdSerializer<ApiResponse<?>> {
+
+        private static final SerializedString NEXT_CURSOR = new SerializedString("nextCursor");
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Serializer() {
+            super((Class) ApiResponse.class);
+        }
+
+        @Override
+        public void serialize(ApiResponse<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            value.shell.writeHeader(gen);
+            if (value.payload == null) {
+                gen.writeNull();
+            } else {
+                provider.defaultSerializeValue(value.payload, gen);
+            }
+            if (value.paged) {
+                gen.writeFieldName(NEXT_CURSOR);
+                gen.writeString(value.nextCursor);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
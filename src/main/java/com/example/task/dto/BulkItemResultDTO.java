@@ -0,0 +1,66 @@
+package com.example.task.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item of a bulk request; {@code index} is the item's position in the request body.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultDTO {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String NOT_FOUND = "not_found";
+    public static final String INVALID = "invalid";
+
+    private final int index;
+    private final Long id;
+    private final String status;
+    private final String message;
+    private final TaskResponseDTO task;
+
+    private BulkItemResultDTO(int index, Long id, String status, String message, TaskResponseDTO task) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+        this.task = task;
+    }
+
+    public static BulkItemResultDTO success(int index, String status, TaskResponseDTO task) {
+        return new BulkItemResultDTO(index, task.getId(), status, null, task);
+    }
+
+    public static BulkItemResultDTO deleted(int index, Long id) {
+        return new BulkItemResultDTO(index, id, DELETED, null, null);
+    }
+
+    public static BulkItemResultDTO failure(int index, Long id, String status, String message) {
+        return new BulkItemResultDTO(index, id, status, message, null);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public TaskResponseDTO getTask() {
+        return task;
+    }
+
+    public boolean isSuccess() {
+        return message == null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.task.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Comparator;
+import java.util.List;
+
+public class BulkResultDTO {
+    private final List<BulkItemResultDTO> items;
+
+    public BulkResultDTO(List<BulkItemResultDTO> items) {
+        this.items = items.stream().sorted(Comparator.comparingInt(BulkItemResultDTO::getIndex)).toList();
+    }
+
+    public int getSucceeded() {
+        return (int) items.stream().filter(BulkItemResultDTO::isSuccess).count();
+    }
+
+    public int getFailed() {
+        return items.size() - getSucceeded();
+    }
+
+    public List<BulkItemResultDTO> getItems() {
+        return items;
+    }
+
+    @JsonIgnore
+    public boolean isAllSucceeded() {
+        return getFailed() == 0;
+    }
+}
@@ -8,8 +8,13 @@ import lombok.Setter;
 @Setter
 public class LoginResponseDTO {
     private String token;
+    private String refreshToken;
+    // Lifetime of the access token in seconds
+    private long expiresIn;
 
-    public LoginResponseDTO(String token) {
+    public LoginResponseDTO(String token, String refreshToken, long expiresIn) {
         this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
     }
 }
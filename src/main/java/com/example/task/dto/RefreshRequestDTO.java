@@ -0,0 +1,10 @@
+package com.example.task.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RefreshRequestDTO {
+    private String refreshToken;
+}
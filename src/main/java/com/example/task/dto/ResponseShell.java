@@ -0,0 +1,70 @@
+package com.example.task.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+
+/**
+ * The fixed part of a response envelope: status, message, code and the name of
+ * the payload field. Shells are meant to be declared once as constants; every
+ * string is kept as a {@link SerializedString} so its quoted UTF-8 bytes are
+ * encoded once and copied straight into the output afterwards.
+ */
+public final class ResponseShell {
+
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString CODE = new SerializedString("code");
+
+    private final SerializedString status;
+    private final SerializedString message;
+    private final int code;
+    private final SerializedString payloadField;
+
+    private ResponseShell(String status, String message, int code, String payloadField) {
+        this.status = new SerializedString(status);
+        this.message = new SerializedString(message);
+        this.code = code;
+        this.payloadField = new SerializedString(payloadField);
+    }
+
+    public static ResponseShell of(String status, String message, int code, String payloadField) {
+        return new ResponseShell(status, message, code, payloadField);
+    }
+
+    public String getStatus() {
+        return status.getValue();
+    }
+
+    public String getMessage() {
+        return message.getValue();
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getPayloadField() {
+        return payloadField.getValue();
+    }
+
+    /**
+     * Opens the envelope object and writes everything up to and including the payload field name.
+     */
+    public void writeHeader(JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        writeField(gen, STATUS, status);
+        writeField(gen, MESSAGE, message);
+        gen.writeFieldName(CODE);
+        gen.writeNumber(code);
+        gen.writeFieldName(payloadField);
+    }
+
+    private static void writeField(JsonGenerator gen, SerializableString name, SerializableString value)
+            throws IOException {
+        gen.writeFieldName(name);
+        gen.writeString(value);
+    }
+}
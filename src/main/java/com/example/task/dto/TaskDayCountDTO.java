@@ -0,0 +1,31 @@
+package com.example.task.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Completed and pending task counts for one calendar day. Used by the grouped JPQL
+ * projection in TaskRepository, which only returns days that have tasks.
+ */
+public class TaskDayCountDTO {
+    private final LocalDate date;
+    private final long completed;
+    private final long pending;
+
+    public TaskDayCountDTO(LocalDate date, Long completed, Long pending) {
+        this.date = date;
+        this.completed = completed == null ? 0 : completed;
+        this.pending = pending == null ? 0 : pending;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getPending() {
+        return pending;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.task.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A committed change to one task, published by TaskService and pushed to the owner's
+ * event streams. {@code task} is the new state; it is absent for deletions.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskEventDTO(String type, Long taskId, TaskResponseDTO task, @JsonIgnore Long userId) {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+
+    public static TaskEventDTO created(TaskResponseDTO task) {
+        return new TaskEventDTO(CREATED, task.getId(), task, task.getUserId());
+    }
+
+    public static TaskEventDTO updated(TaskResponseDTO task) {
+        return new TaskEventDTO(UPDATED, task.getId(), task, task.getUserId());
+    }
+
+    public static TaskEventDTO deleted(Long taskId, Long userId) {
+        return new TaskEventDTO(DELETED, taskId, null, userId);
+    }
+}
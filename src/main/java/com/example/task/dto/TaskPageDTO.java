@@ -0,0 +1,21 @@
+package com.example.task.dto;
+
+import java.util.List;
+
+public class TaskPageDTO {
+    private final List<TaskResponseDTO> tasks;
+    private final String nextCursor;
+
+    public TaskPageDTO(List<TaskResponseDTO> tasks, String nextCursor) {
+        this.tasks = tasks;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TaskResponseDTO> getTasks() {
+        return tasks;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.task.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.Date;
 
 public class TaskResponseDTO {
@@ -9,6 +11,25 @@ public class TaskResponseDTO {
     private boolean completed;
     private Date date;
 
+    public TaskResponseDTO() {
+    }
+
+    public TaskResponseDTO(Long id, String title, String description, boolean completed, Date date, Long userId) {
+        this(id, title, description, completed, date, userId, null);
+    }
+
+    // Used by JPQL constructor projections in TaskRepository
+    public TaskResponseDTO(Long id, String title, String description, boolean completed, Date date, Long userId,
+                           Long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.completed = completed;
+        this.date = date;
+        this.userId = userId;
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -57,5 +78,17 @@ public class TaskResponseDTO {
         this.userId = userId;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     private Long userId;
+
+    // Unknown after an unconditional update, which leaves the field out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
 }
\ No newline at end of file
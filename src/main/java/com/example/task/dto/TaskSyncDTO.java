@@ -0,0 +1,48 @@
+package com.example.task.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * One step of a delta sync. With {@code reset} the client replaces its local copy with
+ * {@code updated}; otherwise it upserts {@code updated} and drops {@code deleted}. While
+ * {@code hasMore} is set the client should sync again right away with the new token.
+ */
+@JsonPropertyOrder({"reset", "updated", "deleted", "syncToken", "hasMore"})
+public class TaskSyncDTO {
+    private final boolean reset;
+    private final List<TaskResponseDTO> updated;
+    private final List<Long> deleted;
+    private final String syncToken;
+    private final boolean hasMore;
+
+    public TaskSyncDTO(boolean reset, List<TaskResponseDTO> updated, List<Long> deleted, String syncToken,
+                       boolean hasMore) {
+        this.reset = reset;
+        this.updated = updated;
+        this.deleted = deleted;
+        this.syncToken = syncToken;
+        this.hasMore = hasMore;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public List<TaskResponseDTO> getUpdated() {
+        return updated;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public String getSyncToken() {
+        return syncToken;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
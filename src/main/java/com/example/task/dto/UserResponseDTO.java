@@ -4,6 +4,15 @@ public class UserResponseDTO {
     private Long id;
     private String name;
 
+    public UserResponseDTO() {
+    }
+
+    public UserResponseDTO(Long id, String name, int tasksCount) {
+        this.id = id;
+        this.name = name;
+        this.tasksCount = tasksCount;
+    }
+
     public Long getId() {
         return id;
     }
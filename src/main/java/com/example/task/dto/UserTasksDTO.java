@@ -0,0 +1,34 @@
+package com.example.task.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"id", "name", "tasksCount", "tasks"})
+public class UserTasksDTO {
+    private final Long id;
+    private final String name;
+    private final int tasksCount;
+    private final TaskPageDTO tasks;
+
+    public UserTasksDTO(UserResponseDTO user, TaskPageDTO tasks) {
+        this.id = user.getId();
+        this.name = user.getName();
+        this.tasksCount = user.getTasksCount();
+        this.tasks = tasks;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getTasksCount() {
+        return tasksCount;
+    }
+
+    public TaskPageDTO getTasks() {
+        return tasks;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.task.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A message on the database-backed cluster bus. Instances poll for ids above the last one they
+ * read; rows are purged once every instance has had time to see them.
+ */
+@Entity
+@Table(name = "cluster_messages_table", indexes = {
+        @Index(name = "idx_cluster_messages_created_at", columnList = "created_at")
+})
+public class ClusterMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String topic;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    // The publishing instance, which skips its own messages
+    @Column(nullable = false, length = 36)
+    private String origin;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.task.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * The lease on one scheduled job in the shared database: the instance that last claimed
+ * {@code job} runs it, and no other instance may until {@code lockedUntil} (epoch millis).
+ */
+@Entity
+@Table(name = "job_locks_table")
+public class JobLock {
+
+    @Id
+    @Column(name = "job_name", length = 191)
+    private String job;
+
+    @Column(name = "locked_until", nullable = false)
+    private long lockedUntil;
+
+    public String getJob() {
+        return job;
+    }
+
+    public void setJob(String job) {
+        this.job = job;
+    }
+
+    public long getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(long lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.task.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * One fixed-window counter of the database-backed rate limits: the hits on {@code key} since
+ * {@code windowStart} (epoch millis). A hit in a later window restarts the count.
+ */
+@Entity
+@Table(name = "rate_limit_counters_table", indexes = {
+        @Index(name = "idx_rate_limit_counters_window_start", columnList = "window_start")
+})
+public class RateLimitCounter {
+
+    @Id
+    @Column(name = "counter_key", length = 191)
+    private String key;
+
+    @Column(name = "window_start", nullable = false)
+    private long windowStart;
+
+    @Column(nullable = false)
+    private long hits;
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(long windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+}
@@ -1,17 +1,32 @@
 package com.example.task.entity;
 
+import com.example.task.config.HibernateCacheConfig;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Date;
 
 @Entity
-@Table(name = "notes_table")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.TASKS_REGION)
+@Table(name = "notes_table", indexes = {
+        // Listings and keyset pages: user_id = ? [AND id > ?] ORDER BY id
+        @Index(name = "idx_notes_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_notes_user_date_completed", columnList = "user_id, date, completed"),
+        @Index(name = "idx_notes_user_completed", columnList = "user_id, completed")
+})
 public class Task {
+    public static final String ID_SEQUENCE = "notes_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence (a table on MySQL) hands out ids in blocks, which keeps JDBC insert batching possible
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column
@@ -30,7 +45,12 @@ public class Task {
     @NotNull
     private boolean completed;
 
-    @ManyToOne
+    // Bumped on every write, including the JDBC updates in TaskRepositoryImpl; served as the ETag
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonBackReference
     private User user;
@@ -43,6 +63,14 @@ public class Task {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return title;
     }
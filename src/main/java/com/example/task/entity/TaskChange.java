@@ -0,0 +1,80 @@
+package com.example.task.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Append-only log of task writes, read by the delta sync endpoint. The auto-increment id is the
+ * sync position; rows are written through {@code TaskChangeRepositoryImpl} after the owner's
+ * users_table row is locked, so one user's changes get ids in commit order.
+ */
+@Entity
+@Table(name = "task_changes_table", indexes = {
+        // Sync reads: user_id = ? AND id > ? ORDER BY id
+        @Index(name = "idx_task_changes_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_task_changes_changed_at", columnList = "changed_at")
+})
+public class TaskChange {
+
+    public enum Type {
+        UPSERT, DELETE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Type type;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Instant changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.task.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * An access-token revocation in the shared database: either a single token by id, or every token
+ * issued to {@code username} up to {@code revokedBefore}. Rows are purged once no token they
+ * cover can still be valid.
+ */
+@Entity
+@Table(name = "token_revocations_table", indexes = {
+        @Index(name = "idx_token_revocations_token_id", columnList = "token_id"),
+        @Index(name = "idx_token_revocations_username", columnList = "username, revoked_before"),
+        @Index(name = "idx_token_revocations_expires_at", columnList = "expires_at")
+})
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_id", length = 36)
+    private String tokenId;
+
+    @Column
+    private String username;
+
+    // Epoch millis on the revoking instance's clock
+    @Column(name = "revoked_before")
+    private Long revokedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getRevokedBefore() {
+        return revokedBefore;
+    }
+
+    public void setRevokedBefore(Long revokedBefore) {
+        this.revokedBefore = revokedBefore;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
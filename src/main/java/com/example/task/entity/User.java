@@ -1,14 +1,20 @@
 package com.example.task.entity;
 
+import com.example.task.config.HibernateCacheConfig;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS_REGION)
 @Table(name = "users_table")
 public class User {
     @Id
@@ -37,21 +43,29 @@ public class User {
         this.password = password;
     }
 
-    public ArrayList<Task> getTasks(){
-        return (ArrayList<Task>) tasks;
+    // Hibernate replaces the list with its own collection type once the user is managed
+    public List<Task> getTasks(){
+        return tasks;
     }
 
     public void setTasks(List<Task> tasks) {
         this.tasks = tasks;
     }
 
+    // Accepted on input only; the hash is never written back out
     @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
 
     @NotNull
     int tasksCount;
 
+    // Also bumped by the tasks_count JDBC update, so a profile save never overwrites a newer counter
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @OneToMany(mappedBy = "user" , cascade = CascadeType.ALL)
     @JsonManagedReference
     public List<Task> tasks = new ArrayList<>();
@@ -76,6 +90,14 @@ public class User {
         this.tasksCount = tasksCount;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public void setName(String name) {
         this.name = name;
     }
@@ -0,0 +1,8 @@
+package com.example.task.exception;
+
+public class HashingCapacityExceededException extends RuntimeException {
+
+    public HashingCapacityExceededException() {
+        super("Too many concurrent authentication requests, retry shortly");
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.task.exception;
+
+public class InvalidDateRangeException extends RuntimeException {
+
+    public InvalidDateRangeException(String message) {
+        super("Invalid date range: " + message);
+    }
+}
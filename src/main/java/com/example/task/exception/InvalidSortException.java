@@ -0,0 +1,8 @@
+package com.example.task.exception;
+
+public class InvalidSortException extends RuntimeException {
+
+    public InvalidSortException(String sort) {
+        super("Invalid sort: " + sort);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.task.exception;
+
+public class SyncTokenExpiredException extends RuntimeException {
+
+    public SyncTokenExpiredException() {
+        super("Sync token is older than the change log, sync again without a token");
+    }
+}
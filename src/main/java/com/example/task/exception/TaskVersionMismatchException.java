@@ -0,0 +1,8 @@
+package com.example.task.exception;
+
+public class TaskVersionMismatchException extends RuntimeException {
+
+    public TaskVersionMismatchException(Long id) {
+        super("Task " + id + " has been modified since the given version");
+    }
+}
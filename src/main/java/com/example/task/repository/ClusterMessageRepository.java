@@ -0,0 +1,24 @@
+package com.example.task.repository;
+
+import com.example.task.entity.ClusterMessage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ClusterMessageRepository extends JpaRepository<ClusterMessage, Long> {
+
+    List<ClusterMessage> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM ClusterMessage m")
+    long findLatestId();
+
+    @Modifying
+    @Query("DELETE FROM ClusterMessage m WHERE m.createdAt < :cutoff")
+    int deleteOlderThan(Instant cutoff);
+}
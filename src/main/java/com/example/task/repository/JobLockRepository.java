@@ -0,0 +1,9 @@
+package com.example.task.repository;
+
+import com.example.task.entity.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String>, JobLockRepositoryCustom {
+}
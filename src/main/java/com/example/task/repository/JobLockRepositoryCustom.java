@@ -0,0 +1,7 @@
+package com.example.task.repository;
+
+public interface JobLockRepositoryCustom {
+
+    // Claims job until lockedUntilMillis unless its lease runs past nowMillis; needs a transaction
+    boolean tryLock(String job, long nowMillis, long lockedUntilMillis);
+}
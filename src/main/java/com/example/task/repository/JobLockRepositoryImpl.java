@@ -0,0 +1,47 @@
+package com.example.task.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+/**
+ * Leases in plain JDBC: the conditional UPDATE only matches an expired lease, so of the instances
+ * racing for it exactly one changes the row. A job's first lease inserts it; an instance losing
+ * that race to another one's insert does not get the lease.
+ */
+public class JobLockRepositoryImpl implements JobLockRepositoryCustom {
+
+    private static final String CLAIM =
+            "UPDATE job_locks_table SET locked_until = ? WHERE job_name = ? AND locked_until <= ?";
+
+    private static final String INSERT = "INSERT INTO job_locks_table (job_name, locked_until) VALUES (?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public boolean tryLock(String job, long nowMillis, long lockedUntilMillis) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(CLAIM)) {
+                statement.setLong(1, lockedUntilMillis);
+                statement.setString(2, job);
+                statement.setLong(3, nowMillis);
+                if (statement.executeUpdate() > 0) {
+                    return true;
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                statement.setString(1, job);
+                statement.setLong(2, lockedUntilMillis);
+                statement.executeUpdate();
+                return true;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // The row exists and its lease is still running
+                return false;
+            }
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.task.repository;
+
+import com.example.task.entity.RateLimitCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RateLimitCounterRepository extends JpaRepository<RateLimitCounter, String>, RateLimitCounterRepositoryCustom {
+
+    @Modifying
+    @Query("DELETE FROM RateLimitCounter c WHERE c.windowStart < :cutoffMillis")
+    int deleteWindowsBefore(long cutoffMillis);
+}
@@ -0,0 +1,7 @@
+package com.example.task.repository;
+
+public interface RateLimitCounterRepositoryCustom {
+
+    // Counts one hit in the window starting at windowStart and returns its hits so far; needs a transaction
+    long increment(String key, long windowStart);
+}
@@ -0,0 +1,64 @@
+package com.example.task.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+/**
+ * Increments in plain JDBC: the UPDATE holds the counter's row lock until commit, so the count
+ * read back is exactly this hit's, and no instance ever reads a counter another one is changing.
+ * A first hit inserts the row; losing that race to another instance falls back to the UPDATE.
+ */
+public class RateLimitCounterRepositoryImpl implements RateLimitCounterRepositoryCustom {
+
+    // hits is assigned first, so it compares against the stored window on MySQL too
+    private static final String INCREMENT = "UPDATE rate_limit_counters_table "
+            + "SET hits = CASE WHEN window_start = ? THEN hits + 1 ELSE 1 END, window_start = ? "
+            + "WHERE counter_key = ?";
+
+    private static final String INSERT =
+            "INSERT INTO rate_limit_counters_table (counter_key, window_start, hits) VALUES (?, ?, 1)";
+
+    private static final String READ = "SELECT hits FROM rate_limit_counters_table WHERE counter_key = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public long increment(String key, long windowStart) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            if (update(connection, key, windowStart) == 0) {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                    statement.setString(1, key);
+                    statement.setLong(2, windowStart);
+                    statement.executeUpdate();
+                    return 1L;
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    update(connection, key, windowStart);
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(READ)) {
+                statement.setString(1, key);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    return rs.getLong(1);
+                }
+            }
+        });
+    }
+
+    private static int update(Connection connection, String key, long windowStart) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INCREMENT)) {
+            statement.setLong(1, windowStart);
+            statement.setLong(2, windowStart);
+            statement.setString(3, key);
+            return statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.task.repository;
+
+import com.example.task.entity.TaskChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TaskChangeRepository extends JpaRepository<TaskChange, Long>, TaskChangeRepositoryCustom {
+
+    List<TaskChange> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM TaskChange c WHERE c.userId = :userId")
+    long findLatestId(Long userId);
+
+    @Query("SELECT COALESCE(MIN(c.id), 0) FROM TaskChange c")
+    long findOldestId();
+
+    @Query("SELECT MIN(c.id) FROM TaskChange c WHERE c.changedAt >= :cutoff")
+    Long findFirstIdSince(Instant cutoff);
+
+    // Only ids below boundaryId, so every purged change is older than every retained one
+    @Modifying
+    @Query("DELETE FROM TaskChange c WHERE c.id < :boundaryId AND c.changedAt < :cutoff")
+    int deleteOlderThan(long boundaryId, Instant cutoff);
+
+    @Modifying
+    @Query("DELETE FROM TaskChange c WHERE c.userId = :userId")
+    int deleteByUserId(Long userId);
+}
@@ -0,0 +1,11 @@
+package com.example.task.repository;
+
+import com.example.task.entity.TaskChange;
+
+import java.util.Collection;
+
+public interface TaskChangeRepositoryCustom {
+
+    // One JDBC batch; callers must hold the owner's row lock so ids follow commit order
+    void record(Long userId, Collection<Long> taskIds, TaskChange.Type type);
+}
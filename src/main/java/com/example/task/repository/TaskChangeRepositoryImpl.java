@@ -0,0 +1,44 @@
+package com.example.task.repository;
+
+import com.example.task.entity.TaskChange;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Writes change-log rows as a plain JDBC batch: with an IDENTITY id Hibernate would send
+ * one INSERT per row, and the rows are never read back in the writing transaction.
+ */
+public class TaskChangeRepositoryImpl implements TaskChangeRepositoryCustom {
+
+    private static final String INSERT =
+            "INSERT INTO task_changes_table (user_id, task_id, type, changed_at) VALUES (?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void record(Long userId, Collection<Long> taskIds, TaskChange.Type type) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (Long taskId : taskIds) {
+                    statement.setLong(1, userId);
+                    statement.setLong(2, taskId);
+                    statement.setString(3, type.name());
+                    statement.setTimestamp(4, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.task.repository;
+
+import com.example.task.exception.InvalidDateRangeException;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Criteria for task listings. Only the user is mandatory; every other
+ * criterion is left out of the generated query when it is null.
+ */
+public final class TaskFilter {
+
+    private final Long userId;
+    private final Date date;
+    private final Boolean completed;
+    private final Date from;
+    private final Date until;
+
+    private TaskFilter(Long userId, Date date, Boolean completed, Date from, Date until) {
+        this.userId = userId;
+        this.date = date;
+        this.completed = completed;
+        this.from = from;
+        this.until = until;
+    }
+
+    public static TaskFilter of(Long userId, Date date, Boolean completed) {
+        return new TaskFilter(userId, date, completed, null, null);
+    }
+
+    public static TaskFilter forUser(Long userId) {
+        return new TaskFilter(userId, null, null, null, null);
+    }
+
+    /**
+     * Narrows the filter to tasks dated on the given days, both inclusive; either end may be open.
+     * Days are taken in the server's time zone, as task dates are.
+     */
+    public TaskFilter between(LocalDate firstDay, LocalDate lastDay) {
+        if (firstDay != null && lastDay != null && firstDay.isAfter(lastDay)) {
+            throw new InvalidDateRangeException(firstDay + " is after " + lastDay);
+        }
+        return new TaskFilter(userId, date, completed, startOf(firstDay),
+                lastDay == null ? null : startOf(lastDay.plusDays(1)));
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    // Inclusive lower bound of the date range, or null
+    public Date getFrom() {
+        return from;
+    }
+
+    // Exclusive upper bound of the date range, or null
+    public Date getUntil() {
+        return until;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskFilter other)) {
+            return false;
+        }
+        return Objects.equals(userId, other.userId)
+                && Objects.equals(date, other.date)
+                && Objects.equals(completed, other.completed)
+                && Objects.equals(from, other.from)
+                && Objects.equals(until, other.until);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, date, completed, from, until);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskFilter{userId=" + userId + ", date=" + date + ", completed=" + completed
+                + ", from=" + from + ", until=" + until + "}";
+    }
+
+    private static Date startOf(LocalDate day) {
+        return day == null ? null : Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -1,29 +1,62 @@
 package com.example.task.repository;
 
 
+import com.example.task.dto.TaskDayCountDTO;
+import com.example.task.dto.TaskResponseDTO;
 import com.example.task.entity.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+/**
+ * Read queries select straight into {@link TaskResponseDTO}. {@code t.user.id} resolves
+ * to the user_id foreign key column, so neither a join on users_table nor a managed
+ * entity is involved. Filtered listings live in {@link TaskRepositoryImpl}.
+ */
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
     @Query("""
-    SELECT t FROM Task t
-    WHERE (:date IS NULL OR t.date = :date)
-      AND (:completed IS NULL OR t.completed = :completed)
-      AND (t.user.id = :userid)
+    SELECT new com.example.task.dto.TaskResponseDTO(t.id, t.title, t.description, t.completed, t.date, t.user.id,
+            t.version)
+    FROM Task t
+    WHERE t.id = :id AND t.user.id = :userId
 """)
-    List<Task> findByDateAndCompletedOptional(
-            @Param("date") Date date,
-            @Param("completed") Boolean completed,
-            @Param("userid") Long userId
-    );
+    Optional<TaskResponseDTO> findOwnedViewById(@Param("id") Long id, @Param("userId") Long userId);
 
+    boolean existsByIdAndUserId(Long id, Long userId);
 
+    @Query("""
+    SELECT new com.example.task.dto.TaskResponseDTO(t.id, t.title, t.description, t.completed, t.date, t.user.id,
+            t.version)
+    FROM Task t
+    WHERE t.user.id = :userId AND t.id IN :ids
+    ORDER BY t.id
+""")
+    List<TaskResponseDTO> findOwnedViewsByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Bulk writes load only the caller's tasks; ids owned by anyone else are simply not returned
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.id IN :ids")
+    List<Task> findOwnedByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId AND t.id IN :ids")
+    List<Long> findOwnedIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Per-day counts in [from, until): one range seek on idx_notes_user_date_completed, which covers the query
+    @Query("""
+    SELECT new com.example.task.dto.TaskDayCountDTO(cast(t.date as LocalDate),
+            sum(case when t.completed = true then 1 else 0 end),
+            sum(case when t.completed = false then 1 else 0 end))
+    FROM Task t
+    WHERE t.user.id = :userId AND t.date >= :from AND t.date < :until
+    GROUP BY cast(t.date as LocalDate)
+    ORDER BY cast(t.date as LocalDate)
+""")
+    List<TaskDayCountDTO> countByDay(@Param("userId") Long userId, @Param("from") Date from,
+                                     @Param("until") Date until);
 
 }
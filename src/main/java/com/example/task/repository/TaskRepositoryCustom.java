@@ -0,0 +1,29 @@
+package com.example.task.repository;
+
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.entity.Task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+
+    List<TaskResponseDTO> findViews(TaskFilter filter);
+
+    // Keyset page: resumes strictly after the last id the client has seen
+    List<TaskResponseDTO> findViewPage(TaskFilter filter, long afterId, int limit);
+
+    // Forward-only cursor; must be consumed inside a transaction and closed by the caller
+    Stream<TaskResponseDTO> streamViews(TaskFilter filter);
+
+    // Rewrites the editable columns of the task only if it belongs to the user and, when an expected
+    // version is given, is still at that version; bumps the version and returns the rows changed
+    int updateOwned(Task task, Long userId, Long expectedVersion);
+
+    // Deletes the task only if it belongs to the user; returns the rows deleted
+    int deleteOwned(Long id, Long userId);
+
+    // Deletes those of the tasks that belong to the user in one statement; returns the rows deleted
+    int deleteOwned(Collection<Long> ids, Long userId);
+}
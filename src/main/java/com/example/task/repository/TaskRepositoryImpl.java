@@ -0,0 +1,143 @@
+package com.example.task.repository;
+
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.entity.Task;
+import com.example.task.utils.AfterCommit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Task listings built from {@link TaskSpecifications} and projected straight into
+ * {@link TaskResponseDTO}, reading the user_id column without joining users_table.
+ * Single-task writes are ownership-scoped JDBC statements that evict only the affected task
+ * from the second-level cache, for the same reason as {@link UserRepositoryImpl}.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String UPDATE_OWNED =
+            "UPDATE notes_table SET title = ?, description = ?, date = ?, completed = ?, version = version + 1"
+                    + " WHERE id = ? AND user_id = ?";
+    private static final String UPDATE_OWNED_IF_VERSION = UPDATE_OWNED + " AND version = ?";
+    private static final String DELETE_OWNED =
+            "DELETE FROM notes_table WHERE id = ? AND user_id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskResponseDTO> findViews(TaskFilter filter) {
+        return viewQuery(TaskSpecifications.matching(filter)).getResultList();
+    }
+
+    @Override
+    public List<TaskResponseDTO> findViewPage(TaskFilter filter, long afterId, int limit) {
+        Specification<Task> spec = TaskSpecifications.matching(filter);
+        if (afterId > 0) {
+            spec = spec.and(TaskSpecifications.idAfter(afterId));
+        }
+        return viewQuery(spec)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<TaskResponseDTO> streamViews(TaskFilter filter) {
+        return viewQuery(TaskSpecifications.matching(filter))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    @Override
+    public int updateOwned(Task task, Long userId, Long expectedVersion) {
+        int updated = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    expectedVersion == null ? UPDATE_OWNED : UPDATE_OWNED_IF_VERSION)) {
+                statement.setString(1, task.getTitle());
+                statement.setString(2, task.getDescription());
+                statement.setTimestamp(3, new Timestamp(task.getDate().getTime()));
+                statement.setBoolean(4, task.isCompleted());
+                statement.setLong(5, task.getId());
+                statement.setLong(6, userId);
+                if (expectedVersion != null) {
+                    statement.setLong(7, expectedVersion);
+                }
+                return statement.executeUpdate();
+            }
+        });
+        if (updated > 0) {
+            evict(task.getId());
+        }
+        return updated;
+    }
+
+    @Override
+    public int deleteOwned(Long id, Long userId) {
+        int deleted = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_OWNED)) {
+                statement.setLong(1, id);
+                statement.setLong(2, userId);
+                return statement.executeUpdate();
+            }
+        });
+        if (deleted > 0) {
+            evict(id);
+        }
+        return deleted;
+    }
+
+    @Override
+    public int deleteOwned(Collection<Long> ids, Long userId) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String sql = "DELETE FROM notes_table WHERE user_id = ? AND id IN ("
+                + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        int deleted = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, userId);
+                int index = 2;
+                for (Long id : ids) {
+                    statement.setLong(index++, id);
+                }
+                return statement.executeUpdate();
+            }
+        });
+        if (deleted > 0) {
+            ids.forEach(this::evict);
+        }
+        return deleted;
+    }
+
+    private void evict(Long id) {
+        // A concurrent reader may re-cache the old row before we commit, so evict again afterwards
+        AfterCommit.nowAndAgain(() -> entityManager.getEntityManagerFactory().getCache().evict(Task.class, id));
+    }
+
+    private TypedQuery<TaskResponseDTO> viewQuery(Specification<Task> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponseDTO> query = cb.createQuery(TaskResponseDTO.class);
+        Root<Task> t = query.from(Task.class);
+        query.select(cb.construct(TaskResponseDTO.class,
+                        t.get("id"), t.get("title"), t.get("description"),
+                        t.get("completed"), t.get("date"), t.get("user").get("id"), t.get("version")))
+                .where(spec.toPredicate(t, query, cb))
+                .orderBy(cb.asc(t.get("id")));
+        return entityManager.createQuery(query);
+    }
+}
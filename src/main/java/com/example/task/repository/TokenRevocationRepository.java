@@ -0,0 +1,23 @@
+package com.example.task.repository;
+
+import com.example.task.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    @Query("SELECT COUNT(r) > 0 FROM TokenRevocation r WHERE r.expiresAt > :now"
+            + " AND (r.tokenId = :tokenId OR (r.username = :username AND r.revokedBefore >= :issuedAt))")
+    boolean existsCovering(@Param("tokenId") String tokenId, @Param("username") String username,
+                           @Param("issuedAt") long issuedAtMillis, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt <= :now")
+    int deleteExpired(Instant now);
+}
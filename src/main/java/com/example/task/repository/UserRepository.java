@@ -1,13 +1,42 @@
 package com.example.task.repository;
 
+import com.example.task.config.HibernateCacheConfig;
+import com.example.task.dto.UserResponseDTO;
 import com.example.task.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
+    // Cached id lookup; the row itself comes from the users region
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.USERS_BY_USERNAME_REGION)
+    })
     public Optional<User> findByUsername(String username);
+
+    // Summary rows only: no password column and no tasks collection
+    @Query("SELECT new com.example.task.dto.UserResponseDTO(u.id, u.name, u.tasksCount) FROM User u")
+    Page<UserResponseDTO> findSummaries(Pageable pageable);
+
+    // Rewrites only the counters that drifted from the real number of tasks.
+    // As a native statement it clears every second-level cache region, which is fine for a nightly job.
+    @Modifying
+    @Query(value = """
+    UPDATE users_table u
+    SET tasks_count = (SELECT COUNT(*) FROM notes_table t WHERE t.user_id = u.id),
+        version = version + 1
+    WHERE u.tasks_count <> (SELECT COUNT(*) FROM notes_table t WHERE t.user_id = u.id)
+""", nativeQuery = true)
+    int reconcileTasksCounts();
 }
@@ -0,0 +1,10 @@
+package com.example.task.repository;
+
+public interface UserRepositoryCustom {
+
+    // Single atomic UPDATE; returns 0 when the user does not exist
+    int adjustTasksCount(Long id, int delta);
+
+    // Row lock without a write, serializing task changes of one user until the transaction ends
+    void lockForTaskChanges(Long id);
+}
@@ -0,0 +1,56 @@
+package com.example.task.repository;
+
+import com.example.task.entity.User;
+import com.example.task.utils.AfterCommit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Counter updates run as plain JDBC so that only the affected user is evicted from the
+ * second-level cache; a JPQL bulk UPDATE would make Hibernate drop the whole users region
+ * on every task created or deleted.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String ADJUST_TASKS_COUNT =
+            "UPDATE users_table SET tasks_count = tasks_count + ?, version = version + 1 WHERE id = ?";
+
+    private static final String LOCK_FOR_TASK_CHANGES =
+            "SELECT id FROM users_table WHERE id = ? FOR UPDATE";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int adjustTasksCount(Long id, int delta) {
+        int updated = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(ADJUST_TASKS_COUNT)) {
+                statement.setInt(1, delta);
+                statement.setLong(2, id);
+                return statement.executeUpdate();
+            }
+        });
+        if (updated > 0) {
+            evict(id);
+        }
+        return updated;
+    }
+
+    @Override
+    public void lockForTaskChanges(Long id) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(LOCK_FOR_TASK_CHANGES)) {
+                statement.setLong(1, id);
+                statement.executeQuery().close();
+            }
+        });
+    }
+
+    private void evict(Long id) {
+        // A concurrent reader may re-cache the old row before we commit, so evict again afterwards
+        AfterCommit.nowAndAgain(() -> entityManager.getEntityManagerFactory().getCache().evict(User.class, id));
+    }
+}
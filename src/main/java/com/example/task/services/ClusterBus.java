@@ -0,0 +1,23 @@
+package com.example.task.services;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts small messages between the backend instances serving the same database, so that
+ * state each instance keeps in memory (caches, search indexes, event streams, token revocations)
+ * follows writes made on the others.
+ * <p>
+ * Delivery is at most once and never back to the publishing instance, which has already applied
+ * the change itself. Everything kept in sync this way must therefore tolerate a lost message:
+ * caches expire, and clients of the event streams catch up through delta sync.
+ */
+public interface ClusterBus {
+
+    void publish(String topic, String payload);
+
+    /**
+     * Registers a handler for messages other instances publish on {@code topic}. Handlers run on
+     * the bus's delivery thread and must not block.
+     */
+    void subscribe(String topic, Consumer<String> handler);
+}
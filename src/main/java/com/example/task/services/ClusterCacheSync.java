@@ -0,0 +1,131 @@
+package com.example.task.services;
+
+import com.example.task.config.HibernateCacheConfig;
+import com.example.task.dto.TaskEventDTO;
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.entity.Task;
+import com.example.task.entity.User;
+import com.example.task.utils.AfterCommit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps each instance's in-memory view of tasks and users in step with writes made on the others.
+ * <p>
+ * Committed task events are forwarded on the {@link ClusterBus}. A receiving instance evicts the
+ * task and its owner (whose task count changed) from the second-level cache, then publishes the
+ * event locally, so the listing cache, search index and event streams there react exactly as
+ * they do to local writes. User changes evict the user's cached rows and listings.
+ */
+@Slf4j
+@Component
+public class ClusterCacheSync {
+
+    private static final String TASK_EVENTS_TOPIC = "tasks.events";
+    private static final String USER_CHANGES_TOPIC = "users.changes";
+    // Sent instead of a user id when any number of users changed at once
+    private static final String ALL_USERS = "*";
+
+    // Set while a remote event is republished, so it is not forwarded back onto the bus
+    private static final ThreadLocal<Boolean> REPLAYING = new ThreadLocal<>();
+
+    @Autowired
+    private ClusterBus clusterBus;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskListingCache taskListingCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostConstruct
+    void subscribe() {
+        clusterBus.subscribe(TASK_EVENTS_TOPIC, this::applyTaskEvent);
+        clusterBus.subscribe(USER_CHANGES_TOPIC, this::applyUserChange);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEventDTO event) {
+        if (REPLAYING.get() != null) {
+            return;
+        }
+        try {
+            clusterBus.publish(TASK_EVENTS_TOPIC, objectMapper.writeValueAsString(TaskEventMessage.of(event)));
+        } catch (JsonProcessingException e) {
+            log.warn("Task event for task ID {} was not sent to other instances", event.taskId(), e);
+        }
+    }
+
+    // Registration, profile edits and deletion; sent once the surrounding transaction commits
+    public void userChanged(Long userId) {
+        AfterCommit.run(() -> clusterBus.publish(USER_CHANGES_TOPIC, String.valueOf(userId)));
+    }
+
+    // Bulk updates that touched an unknown set of users, such as the task count reconciliation
+    public void usersChanged() {
+        AfterCommit.run(() -> clusterBus.publish(USER_CHANGES_TOPIC, ALL_USERS));
+    }
+
+    private void applyTaskEvent(String payload) {
+        TaskEventDTO event;
+        try {
+            event = objectMapper.readValue(payload, TaskEventMessage.class).toEvent();
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring an unreadable task event from another instance", e);
+            return;
+        }
+        Cache cache = secondLevelCache();
+        cache.evict(Task.class, event.taskId());
+        cache.evict(User.class, event.userId());
+
+        REPLAYING.set(Boolean.TRUE);
+        try {
+            eventPublisher.publishEvent(event);
+        } finally {
+            REPLAYING.remove();
+        }
+    }
+
+    private void applyUserChange(String payload) {
+        Cache cache = secondLevelCache();
+        // Lookups by username are cached as query results, which cannot be evicted per user
+        cache.evictQueryRegion(HibernateCacheConfig.USERS_BY_USERNAME_REGION);
+        if (ALL_USERS.equals(payload)) {
+            cache.evict(User.class);
+            return;
+        }
+        Long userId = Long.valueOf(payload);
+        cache.evict(User.class, userId);
+        taskListingCache.invalidate(userId);
+    }
+
+    private Cache secondLevelCache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+
+    // TaskEventDTO keeps the owner out of its JSON, which the receiving instance needs for routing
+    record TaskEventMessage(String type, Long taskId, TaskResponseDTO task, Long userId) {
+
+        static TaskEventMessage of(TaskEventDTO event) {
+            return new TaskEventMessage(event.type(), event.taskId(), event.task(), event.userId());
+        }
+
+        TaskEventDTO toEvent() {
+            return new TaskEventDTO(type, taskId, task, userId);
+        }
+    }
+}
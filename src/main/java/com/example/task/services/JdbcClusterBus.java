@@ -0,0 +1,118 @@
+package com.example.task.services;
+
+import com.example.task.entity.ClusterMessage;
+import com.example.task.repository.ClusterMessageRepository;
+import com.example.task.utils.PrimaryReads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A {@link ClusterBus} over a table in the shared database, for deployments without a message
+ * broker. Publishing inserts a row in a transaction of its own, so it also works from
+ * after-commit callbacks; every instance polls for rows above the last id it read and hands
+ * other instances' messages to its subscribers.
+ * <p>
+ * A new instance starts from the latest id: its caches are empty, so there is nothing older to
+ * apply. Ids are taken at insert but become visible at commit, so a message committed behind a
+ * higher id that was already read is missed, which the at-most-once contract allows.
+ */
+@Slf4j
+public class JdbcClusterBus implements ClusterBus {
+
+    private final String origin = UUID.randomUUID().toString();
+    private final ClusterMessageRepository repository;
+    private final TransactionTemplate transactions;
+    private final int batchSize;
+    private final Duration retention;
+    private final JobLocks jobLocks;
+    private final Duration purgeInterval;
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+    private volatile Long lastSeenId;
+
+    public JdbcClusterBus(ClusterMessageRepository repository, PlatformTransactionManager transactionManager,
+                          int batchSize, Duration retention, JobLocks jobLocks, Duration purgeInterval) {
+        this.repository = repository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.jobLocks = jobLocks;
+        this.purgeInterval = purgeInterval;
+    }
+
+    // A lost message only leaves a cache stale until it expires, so a failed insert never fails the caller
+    @Override
+    public void publish(String topic, String payload) {
+        ClusterMessage message = new ClusterMessage();
+        message.setTopic(topic);
+        message.setPayload(payload);
+        message.setOrigin(origin);
+        message.setCreatedAt(Instant.now());
+        try {
+            transactions.executeWithoutResult(status -> repository.save(message));
+        } catch (DataAccessException e) {
+            log.warn("Cluster message on {} was not published", topic, e);
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<String> handler) {
+        handlers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    // Reads from the primary: a replica would deliver late, and polling would move its lag into every cache
+    @Scheduled(fixedDelayString = "${tasks.cluster.jdbc.poll-interval:500ms}")
+    public void poll() {
+        PrimaryReads.call(() -> {
+            if (lastSeenId == null) {
+                lastSeenId = repository.findLatestId();
+                return null;
+            }
+            List<ClusterMessage> messages;
+            do {
+                messages = repository.findByIdGreaterThanOrderByIdAsc(lastSeenId, Limit.of(batchSize));
+                messages.forEach(this::deliver);
+                if (!messages.isEmpty()) {
+                    lastSeenId = messages.get(messages.size() - 1).getId();
+                }
+            } while (messages.size() == batchSize);
+            return null;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.cluster.jdbc.purge-interval:10m}")
+    public void purge() {
+        if (!jobLocks.tryLock("cluster.messages.purge", purgeInterval)) {
+            return;
+        }
+        Integer purged = transactions.execute(status -> repository.deleteOlderThan(Instant.now().minus(retention)));
+        log.debug("Purged {} cluster message(s) older than {}", purged, retention);
+    }
+
+    private void deliver(ClusterMessage message) {
+        if (origin.equals(message.getOrigin())) {
+            return;
+        }
+        for (Consumer<String> handler : handlers.getOrDefault(message.getTopic(), List.of())) {
+            try {
+                handler.accept(message.getPayload());
+            } catch (RuntimeException e) {
+                log.warn("Cluster message on {} could not be applied", message.getTopic(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.task.services;
+
+import com.example.task.repository.JobLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * {@link JobLocks} in the shared database, one lease row per job. Each claim commits in a short
+ * transaction of its own, so the other instances see it before the job starts. An instance that
+ * dies mid-job keeps the lease until it runs out, and the job runs again at its next schedule
+ * after that.
+ */
+@Slf4j
+public class JdbcJobLocks implements JobLocks {
+
+    private final JobLockRepository repository;
+    private final TransactionTemplate transactions;
+
+    public JdbcJobLocks(JobLockRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public boolean tryLock(String job, Duration holdFor) {
+        long now = System.currentTimeMillis();
+        boolean locked = Boolean.TRUE.equals(
+                transactions.execute(status -> repository.tryLock(job, now, now + holdFor.toMillis())));
+        if (!locked) {
+            log.debug("Skipping {}, another instance runs it", job);
+        }
+        return locked;
+    }
+}
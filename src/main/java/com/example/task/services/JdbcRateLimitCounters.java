@@ -0,0 +1,52 @@
+package com.example.task.services;
+
+import com.example.task.repository.RateLimitCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * {@link RateLimitCounters} in the shared database, one row per key, so every instance sees the
+ * same counts. Each hit is a short transaction of its own, committed before the caller goes on.
+ * Rows idle for longer than {@code retention} are purged; a window longer than that would be
+ * restarted early, which only lets a client through sooner.
+ */
+@Slf4j
+public class JdbcRateLimitCounters implements RateLimitCounters {
+
+    private final RateLimitCounterRepository repository;
+    private final TransactionTemplate transactions;
+    private final Duration retention;
+    private final JobLocks jobLocks;
+    private final Duration purgeInterval;
+
+    public JdbcRateLimitCounters(RateLimitCounterRepository repository, PlatformTransactionManager transactionManager,
+                                 Duration retention, JobLocks jobLocks, Duration purgeInterval) {
+        this.repository = repository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.retention = retention;
+        this.jobLocks = jobLocks;
+        this.purgeInterval = purgeInterval;
+    }
+
+    @Override
+    public long increment(String key, Duration window) {
+        long start = RateLimitCounters.windowStart(System.currentTimeMillis(), window);
+        return transactions.execute(status -> repository.increment(key, start));
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.cluster.jdbc.purge-interval:10m}")
+    public void purge() {
+        if (!jobLocks.tryLock("cluster.rate-limit-counters.purge", purgeInterval)) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        Integer purged = transactions.execute(status -> repository.deleteWindowsBefore(cutoff));
+        log.debug("Purged {} expired rate-limit counter(s)", purged);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.task.services;
+
+import com.example.task.entity.TokenRevocation;
+import com.example.task.repository.TokenRevocationRepository;
+import com.example.task.utils.PrimaryReads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * {@link RevocationStore} in the shared database. A revocation joins the caller's transaction, so
+ * it commits or rolls back with the change that caused it (a deleted account keeps no valid
+ * tokens, a failed delete revokes none). Lookups run on a verification cache miss only, about once per token per instance, and always on the
+ * primary: a lagging replica would accept a token that was just revoked.
+ */
+@Slf4j
+public class JdbcRevocationStore implements RevocationStore {
+
+    private final TokenRevocationRepository repository;
+    private final TransactionTemplate transactions;
+    private final JobLocks jobLocks;
+    private final Duration purgeInterval;
+
+    public JdbcRevocationStore(TokenRevocationRepository repository, PlatformTransactionManager transactionManager,
+                               JobLocks jobLocks, Duration purgeInterval) {
+        this.repository = repository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        this.jobLocks = jobLocks;
+        this.purgeInterval = purgeInterval;
+    }
+
+    @Override
+    public void revokeToken(String tokenId, Instant expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setTokenId(tokenId);
+        revocation.setExpiresAt(expiresAt);
+        transactions.executeWithoutResult(status -> repository.save(revocation));
+    }
+
+    @Override
+    public void revokeUser(String username, long revokedBeforeMillis, Instant expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUsername(username);
+        revocation.setRevokedBefore(revokedBeforeMillis);
+        revocation.setExpiresAt(expiresAt);
+        transactions.executeWithoutResult(status -> repository.save(revocation));
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId, String username, long issuedAtMillis) {
+        return PrimaryReads.call(() -> repository.existsCovering(tokenId, username, issuedAtMillis, Instant.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.cluster.jdbc.purge-interval:10m}")
+    public void purge() {
+        if (!jobLocks.tryLock("cluster.token-revocations.purge", purgeInterval)) {
+            return;
+        }
+        Integer purged = transactions.execute(status -> repository.deleteExpired(Instant.now()));
+        log.debug("Purged {} expired token revocation(s)", purged);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.task.services;
+
+import java.time.Duration;
+
+/**
+ * Lets a scheduled job that must not run on several backend instances at once (purges, the
+ * nightly reconciliation) run on one of them. Every instance still schedules the job; the first to
+ * claim it runs it and the others skip that run.
+ */
+public interface JobLocks {
+
+    // Nightly jobs hold their lease this long: well past any skew between instances' clocks
+    Duration NIGHTLY_JOB_HOLD = Duration.ofHours(1);
+
+    /**
+     * Claims {@code job} for {@code holdFor} unless another instance holds it, and returns whether
+     * this instance should run it. The lease is never released early, so an instance whose
+     * schedule fires a little later does not run the job a second time.
+     */
+    boolean tryLock(String job, Duration holdFor);
+}
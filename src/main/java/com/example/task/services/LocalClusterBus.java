@@ -0,0 +1,60 @@
+package com.example.task.services;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The in-process {@link ClusterBus}: instances joined to the same {@link Network} see each
+ * other's messages, delivered synchronously on the publishing thread. A single instance is alone
+ * on its own network, so publishing is a no-op; deployments running more than one instance need
+ * {@link JdbcClusterBus} or a broker-backed bus instead.
+ */
+@Slf4j
+public class LocalClusterBus implements ClusterBus {
+
+    private final Network network;
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+
+    public LocalClusterBus() {
+        this(new Network());
+    }
+
+    public LocalClusterBus(Network network) {
+        this.network = network;
+        network.members.add(this);
+    }
+
+    @Override
+    public void publish(String topic, String payload) {
+        for (LocalClusterBus member : network.members) {
+            if (member != this) {
+                member.deliver(topic, payload);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<String> handler) {
+        handlers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    // A failing handler must not stop delivery to the others, nor fail the publisher's request
+    private void deliver(String topic, String payload) {
+        for (Consumer<String> handler : handlers.getOrDefault(topic, List.of())) {
+            try {
+                handler.accept(payload);
+            } catch (RuntimeException e) {
+                log.warn("Cluster message on {} could not be applied", topic, e);
+            }
+        }
+    }
+
+    public static final class Network {
+        private final List<LocalClusterBus> members = new CopyOnWriteArrayList<>();
+    }
+}
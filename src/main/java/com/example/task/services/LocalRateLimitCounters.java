@@ -0,0 +1,38 @@
+package com.example.task.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link RateLimitCounters} held in this instance's memory. Exact for a single instance; with
+ * several, each one counts only the hits it served. Once {@code maxKeys} windows are open the
+ * least recently used are dropped, which can only let a client through early, never block it.
+ */
+public class LocalRateLimitCounters implements RateLimitCounters {
+
+    private final Cache<String, Window> windows;
+
+    public LocalRateLimitCounters(long maxKeys) {
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfter(Expiry.creating((String key, Window window) -> window.length()))
+                .build();
+    }
+
+    @Override
+    public long increment(String key, Duration window) {
+        long start = RateLimitCounters.windowStart(System.currentTimeMillis(), window);
+        return windows.get(key + '@' + start, k -> new Window(window)).hits.incrementAndGet();
+    }
+
+    private record Window(Duration length, AtomicLong hits) {
+
+        private Window(Duration length) {
+            this(length, new AtomicLong());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.task.services;
+
+import com.example.task.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Caps login attempts per username and per client address in fixed windows, counted in the
+ * shared {@link RateLimitCounters} so the caps hold across instances. Checked before any password
+ * hashing, so guessing against one account or from one address cannot tie up the hashing pool.
+ */
+@Service
+public class LoginRateLimiter {
+
+    @Autowired
+    private RateLimitCounters counters;
+
+    @Value("${auth.login.window:1m}")
+    private Duration window = Duration.ofMinutes(1);
+
+    @Value("${auth.login.max-attempts-per-user:10}")
+    private long maxPerUser = 10;
+
+    @Value("${auth.login.max-attempts-per-address:100}")
+    private long maxPerAddress = 100;
+
+    private final Counter rejected;
+
+    public LoginRateLimiter(MeterRegistry registry) {
+        this.rejected = Counter.builder("auth.login.rate-limited")
+                .description("Login attempts refused for exceeding the per-user or per-address limit")
+                .register(registry);
+    }
+
+    public void check(String username, String address) {
+        // Both are counted, so an address spraying many usernames is limited as well
+        long userAttempts = counters.increment("login:user:" + username, window);
+        long addressAttempts = counters.increment("login:addr:" + address, window);
+        if (userAttempts > maxPerUser || addressAttempts > maxPerAddress) {
+            rejected.increment();
+            long now = System.currentTimeMillis();
+            long windowEnd = RateLimitCounters.windowStart(now, window) + window.toMillis();
+            throw new RateLimitExceededException(Duration.ofMillis(windowEnd - now));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.task.services;
+
+import java.time.Duration;
+
+/**
+ * Fixed-window counters shared by every backend instance, so a limit holds for a client no matter
+ * which instance serves it. Windows are aligned to multiples of their length since the epoch:
+ * a one-minute window resets on the minute.
+ */
+public interface RateLimitCounters {
+
+    /**
+     * Counts one hit on {@code key} in the current window and returns the hits so far, this one
+     * included.
+     */
+    long increment(String key, Duration window);
+
+    static long windowStart(long epochMillis, Duration window) {
+        return epochMillis - Math.floorMod(epochMillis, window.toMillis());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.task.services;
+
+import com.example.task.entity.RefreshToken;
+import com.example.task.exception.InvalidRefreshTokenException;
+import com.example.task.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues, rotates and revokes refresh tokens. Refresh is the only place the user is looked up
+ * again, so account changes take effect at the latest one access-token lifetime later.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JobLocks jobLocks;
+
+    @Value("${jwt.refresh-token.ttl:14d}")
+    private Duration refreshTokenTtl;
+
+    /**
+     * The user a refresh token belonged to and the token that replaces it.
+     */
+    public record Rotation(Long userId, String refreshToken) {
+    }
+
+    @Transactional
+    public String issue(Long userId) {
+        return create(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new one in the same family. A token that was already
+     * exchanged means it leaked (or a client retried), so the whole family is revoked.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(InvalidRefreshTokenException::new);
+
+        if (current.isUsed() && !current.isRevoked()) {
+            log.warn("Refresh token reuse for user {}; revoking token family {}",
+                    current.getUserId(), current.getFamilyId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new InvalidRefreshTokenException();
+        }
+        if (current.isUsed() || current.isRevoked() || current.getExpiresAt().isBefore(Instant.now())) {
+            throw new InvalidRefreshTokenException();
+        }
+
+        current.setUsed(true);
+        return new Rotation(current.getUserId(), create(current.getUserId(), current.getFamilyId()));
+    }
+
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(cron = "${jwt.refresh-token.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public int purgeExpired() {
+        if (!jobLocks.tryLock("refresh-tokens.purge", JobLocks.NIGHTLY_JOB_HOLD)) {
+            return 0;
+        }
+        int purged = refreshTokenRepository.deleteExpired(Instant.now());
+        log.info("Purged {} expired refresh token(s)", purged);
+        return purged;
+    }
+
+    private String create(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(value));
+        token.setFamilyId(familyId);
+        token.setUserId(userId);
+        token.setExpiresAt(Instant.now().plus(refreshTokenTtl));
+        refreshTokenRepository.save(token);
+        return value;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
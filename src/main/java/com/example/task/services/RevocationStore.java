@@ -0,0 +1,22 @@
+package com.example.task.services;
+
+import java.time.Instant;
+
+/**
+ * Access-token revocations every backend instance can check, including instances started after
+ * the revocation and ones that missed it on the {@link ClusterBus}. Writes fail the caller
+ * rather than leaving a revoked token accepted elsewhere. Entries are only needed until
+ * {@code expiresAt}, when every token they cover has expired on its own.
+ */
+public interface RevocationStore {
+
+    void revokeToken(String tokenId, Instant expiresAt);
+
+    void revokeUser(String username, long revokedBeforeMillis, Instant expiresAt);
+
+    /**
+     * Whether the token with this id, or every token issued to {@code username} at or before
+     * {@code issuedAtMillis}, has been revoked. {@code tokenId} may be null.
+     */
+    boolean isRevoked(String tokenId, String username, long issuedAtMillis);
+}
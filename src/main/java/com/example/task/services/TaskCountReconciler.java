@@ -0,0 +1,43 @@
+package com.example.task.services;
+
+import com.example.task.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Periodically recomputes users_table.tasks_count from notes_table to repair
+ * drift left by manual data fixes or writes that bypassed TaskService. Runs on
+ * one instance per night, whichever claims it first.
+ */
+@Slf4j
+@Component
+public class TaskCountReconciler {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ClusterCacheSync clusterCacheSync;
+
+    @Autowired
+    private JobLocks jobLocks;
+
+    @Scheduled(cron = "${tasks.count.reconcile-cron:0 0 3 * * *}")
+    @Transactional
+    public int reconcile() {
+        if (!jobLocks.tryLock("tasks-count.reconcile", JobLocks.NIGHTLY_JOB_HOLD)) {
+            return 0;
+        }
+        int fixed = userRepository.reconcileTasksCounts();
+        if (fixed > 0) {
+            clusterCacheSync.usersChanged();
+            log.warn("Reconciled tasksCount for {} user(s)", fixed);
+        } else {
+            log.info("tasksCount is consistent for all users");
+        }
+        return fixed;
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.task.services;
+
+import com.example.task.dto.TaskEventDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed task events out to each user's open event streams.
+ * <p>
+ * Publishing never blocks: every subscriber has a bounded queue, drained by a sender executor.
+ * A subscriber whose queue overflows has fallen too far behind, so it is sent a {@code resync}
+ * event and closed; the client reconnects and catches up through the delta sync endpoint.
+ * Idle streams hold no request thread (servlet async) and get a heartbeat comment regularly.
+ */
+@Slf4j
+@Service
+public class TaskEventBroadcaster {
+
+    private static final Message CONNECTED = Message.comment("connected");
+    private static final Message PING = Message.comment("ping");
+    private static final Message RESYNC = new Message("resync", Map.of(), null);
+
+    private final Map<Long, Deque<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final Executor sender;
+    private final ExecutorService platformSender;
+    private final Counter overflows;
+
+    @Value("${tasks.events.queue-capacity:256}")
+    private int queueCapacity = 256;
+
+    @Value("${tasks.events.max-per-user:5}")
+    private int maxPerUser = 5;
+
+    @Value("${tasks.events.timeout:30m}")
+    private Duration timeout = Duration.ofMinutes(30);
+
+    @Autowired
+    public TaskEventBroadcaster(Environment environment,
+                                @Value("${tasks.events.sender-threads:4}") int senderThreads,
+                                MeterRegistry registry) {
+        this(senderExecutor(environment, senderThreads), registry);
+    }
+
+    TaskEventBroadcaster(Executor sender, MeterRegistry registry) {
+        this.sender = sender;
+        this.platformSender = sender instanceof ExecutorService executorService ? executorService : null;
+        this.overflows = Counter.builder("tasks.events.overflows")
+                .description("Event streams closed because the client fell behind")
+                .register(registry);
+        Gauge.builder("tasks.events.subscribers", open, AtomicInteger::get)
+                .description("Open task event streams")
+                .register(registry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = newEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(queueCapacity));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        Deque<Subscriber> streams = subscribers.compute(userId, (id, existing) -> {
+            Deque<Subscriber> updated = existing == null ? new ConcurrentLinkedDeque<>() : existing;
+            updated.add(subscriber);
+            return updated;
+        });
+        open.incrementAndGet();
+        // Beyond the per-user limit the oldest stream gives way, which bounds what one user can hold open
+        while (streams.size() > maxPerUser) {
+            Subscriber oldest = streams.pollFirst();
+            if (oldest != null) {
+                oldest.close();
+            }
+        }
+
+        // Sends the response headers right away so clients and proxies see the stream open
+        enqueue(subscriber, CONNECTED);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEventDTO event) {
+        Deque<Subscriber> streams = subscribers.get(event.userId());
+        if (streams == null) {
+            return;
+        }
+        Message message = new Message(event.type(), event, null);
+        streams.forEach(subscriber -> enqueue(subscriber, message));
+    }
+
+    @Scheduled(fixedRateString = "${tasks.events.heartbeat:15s}")
+    public void heartbeat() {
+        subscribers.values().forEach(streams -> streams.forEach(subscriber -> enqueue(subscriber, PING)));
+    }
+
+    // Runs before the web server drains, which would otherwise wait on every open stream until its timeout
+    @EventListener(ContextClosedEvent.class)
+    public void closeStreams() {
+        subscribers.values().forEach(streams -> streams.forEach(Subscriber::close));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closeStreams();
+        if (platformSender != null) {
+            platformSender.shutdown();
+        }
+    }
+
+    // Overridden in tests to record what a stream is sent
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private static Executor senderExecutor(Environment environment, int senderThreads) {
+        // A sender may block on a slow socket: cheap on a virtual thread, bounded on platform threads
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("task-events-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-events-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void enqueue(Subscriber subscriber, Message event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        // Once it has to resync, later events are dropped: the client refetches everything anyway
+        if (!subscriber.resync && !subscriber.queue.offer(event)) {
+            overflows.increment();
+            log.debug("Task event stream of user ID {} fell behind; asking it to resync", subscriber.userId);
+            // Set before the queue is cleared, so a concurrent drain cannot finish without seeing it
+            subscriber.resync = true;
+            subscriber.queue.clear();
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Message event;
+            while (!subscriber.resync && (event = subscriber.queue.poll()) != null) {
+                if (!send(subscriber, event)) {
+                    return;
+                }
+            }
+            if (subscriber.resync) {
+                // Stays marked as draining: nothing is sent on this stream after the resync
+                if (send(subscriber, RESYNC)) {
+                    subscriber.close();
+                }
+                return;
+            }
+            subscriber.draining.set(false);
+            // An event may have arrived after the last poll but before the flag was cleared
+        } while ((subscriber.resync || !subscriber.queue.isEmpty()) && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private boolean send(Subscriber subscriber, Message event) {
+        try {
+            subscriber.emitter.send(event.toSse());
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container reports the error and onError removes it
+            subscriber.queue.clear();
+            remove(subscriber);
+            return false;
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            open.decrementAndGet();
+        }
+        subscribers.computeIfPresent(subscriber.userId, (id, streams) -> {
+            streams.remove(subscriber);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    // SseEventBuilder is single-use, so queues hold this and a builder is made per send
+    private record Message(String name, Object data, String comment) {
+
+        static Message comment(String comment) {
+            return new Message(null, null, comment);
+        }
+
+        SseEmitter.SseEventBuilder toSse() {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event();
+            if (comment != null) {
+                return builder.comment(comment);
+            }
+            return builder.name(name).data(data);
+        }
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<Message> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean resync;
+
+        private Subscriber(Long userId, SseEmitter emitter, Queue<Message> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        private void close() {
+            remove(this);
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.task.services;
+
+import com.example.task.dto.ApiResponse;
+import com.example.task.dto.TaskEventDTO;
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.repository.TaskFilter;
+import com.example.task.utils.AfterCommit;
+import com.example.task.utils.ETags;
+import com.example.task.utils.PrimaryReads;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Task listings kept as the exact response bytes plus their ETag, so a hit skips both the query
+ * and JSON serialization. Entries are bounded by their total size in bytes.
+ * <p>
+ * Every committed task write drops the owner's entries. Keys also carry a per-user generation
+ * that is read before the listing is queried and dropped on every invalidation, so a listing
+ * read just before a commit is stored under a generation no one asks for any more, rather
+ * than being served stale. A missing generation is always a new one, never reused, so
+ * generations of idle users can expire without an old key ever matching again.
+ */
+@Component
+public class TaskListingCache implements MeterBinder {
+
+    private final Cache<Key, Listing> listings;
+    private final Map<Long, Set<Key>> keysByUser = new ConcurrentHashMap<>();
+    private final Cache<Long, Long> generations;
+    private final AtomicLong nextGeneration = new AtomicLong();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public TaskListingCache(@Value("${tasks.cache.listings.max-size:64MB}") DataSize maxSize,
+                            @Value("${tasks.cache.listings.ttl:10m}") Duration ttl) {
+        this.listings = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, Listing listing) -> listing.body().length)
+                .expireAfterWrite(ttl)
+                .removalListener((Key key, Listing listing, RemovalCause cause) -> {
+                    if (key != null && cause.wasEvicted()) {
+                        keysByUser.computeIfPresent(key.filter().getUserId(), (id, keys) -> {
+                            keys.remove(key);
+                            return keys.isEmpty() ? null : keys;
+                        });
+                    }
+                })
+                .recordStats()
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    public record Listing(byte[] body, String eTag) {
+    }
+
+    private record Key(long generation, TaskFilter filter, String cursor, Integer limit) {
+    }
+
+    /**
+     * Returns the cached response for this listing, or builds, serializes and caches it.
+     * The query runs outside the cache's locks, so two concurrent misses may both run it.
+     */
+    public Listing get(TaskFilter filter, String cursor, Integer limit,
+                       Supplier<ApiResponse<List<TaskResponseDTO>>> loader) {
+        Long userId = filter.getUserId();
+        Key key = new Key(generations.get(userId, id -> nextGeneration.incrementAndGet()), filter, cursor, limit);
+        Listing cached = listings.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Read on the primary: a listing cached from a lagging replica would outlive the lag
+        ApiResponse<List<TaskResponseDTO>> response = PrimaryReads.call(loader);
+        Listing listing;
+        try {
+            listing = new Listing(objectMapper.writeValueAsBytes(response),
+                    ETags.forListing(response.getPayload(), response.getNextCursor()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        keysByUser.compute(userId, (id, keys) -> {
+            Set<Key> tracked = keys != null ? keys : ConcurrentHashMap.<Key>newKeySet();
+            tracked.add(key);
+            return tracked;
+        });
+        listings.put(key, listing);
+        return listing;
+    }
+
+    // Also runs once the surrounding transaction commits, in case a listing was re-cached in between
+    public void invalidate(Long userId) {
+        AfterCommit.nowAndAgain(() -> evict(userId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEventDTO event) {
+        evict(event.userId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, listings, "tasks.listings");
+        Gauge.builder("tasks.listings.bytes", listings,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Bytes of serialized task listings held in the cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void evict(Long userId) {
+        generations.invalidate(userId);
+        Set<Key> keys = keysByUser.remove(userId);
+        if (keys != null) {
+            listings.invalidateAll(keys);
+        }
+    }
+}
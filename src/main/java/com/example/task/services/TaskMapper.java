@@ -0,0 +1,35 @@
+package com.example.task.services;
+
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.entity.Task;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maps task entities to their response DTOs on the write paths; listings project straight into
+ * DTOs in the query instead.
+ */
+@Slf4j
+public final class TaskMapper {
+
+    private TaskMapper() {
+    }
+
+    public static TaskResponseDTO toDTO(Task task) {
+        TaskResponseDTO dto = new TaskResponseDTO();
+        dto.setId(task.getId());
+        dto.setCompleted(task.isCompleted());
+        dto.setDate(task.getDate());
+        dto.setDescription(task.getDescription());
+        dto.setTitle(task.getTitle());
+        dto.setVersion(task.getVersion());
+
+        if (task.getUser() != null) {
+            dto.setUserId(task.getUser().getId());
+        } else {
+            log.warn("Task ID {} has no associated user", task.getId());
+            dto.setUserId(null);
+        }
+
+        return dto;
+    }
+}
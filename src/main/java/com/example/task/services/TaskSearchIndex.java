@@ -0,0 +1,292 @@
+package com.example.task.services;
+
+import com.example.task.dto.TaskEventDTO;
+import com.example.task.dto.TaskResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over task titles and descriptions, one per user since every search
+ * is scoped to the caller. Terms are kept sorted so a prefix query is a range scan of the
+ * dictionary, and matches are ranked with BM25, title terms counting double.
+ * <p>
+ * A user's index is loaded from the database on their first search and then kept current from
+ * the committed task events; events that arrive while it is loading are replayed afterwards.
+ * Indexes are evicted least-recently-used once the indexed tasks exceed
+ * {@code tasks.search.max-indexed-tasks}, and are simply loaded again on the next search. They
+ * are also reloaded {@code tasks.search.index-ttl} after loading, which bounds how long an
+ * index stays stale when an event from another instance is lost on the {@link ClusterBus}.
+ */
+@Slf4j
+@Component
+public class TaskSearchIndex implements MeterBinder {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MAX_CLAUSES = 8;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Cache<Long, UserIndex> indexes;
+
+    public TaskSearchIndex(@Value("${tasks.search.max-indexed-tasks:1000000}") long maxIndexedTasks,
+                           @Value("${tasks.search.index-ttl:10m}") Duration indexTtl) {
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxIndexedTasks)
+                .weigher((Long userId, UserIndex index) -> Math.max(1, index.size()))
+                .expireAfterWrite(indexTtl)
+                .build();
+    }
+
+    /**
+     * Ranks the user's tasks against the query and returns one page of task ids, best first.
+     * Query words must all match; a word ending in {@code *} matches any term it prefixes.
+     */
+    public Hits search(Long userId, String query, long offset, int limit,
+                       Supplier<Stream<TaskResponseDTO>> snapshot) {
+        List<Clause> clauses = parse(query);
+        if (clauses.isEmpty()) {
+            return new Hits(0, List.of());
+        }
+        UserIndex index = indexes.get(userId, id -> new UserIndex());
+        try {
+            if (index.load(snapshot)) {
+                // Re-weigh now that it holds the user's tasks
+                indexes.put(userId, index);
+                log.debug("Indexed {} tasks for user ID {}", index.size(), userId);
+            }
+        } catch (RuntimeException e) {
+            indexes.asMap().remove(userId, index);
+            throw e;
+        }
+        return index.search(clauses, offset, limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEventDTO event) {
+        UserIndex index = indexes.getIfPresent(event.userId());
+        if (index != null) {
+            index.apply(event);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tasks.search.indexed.tasks", indexes,
+                        cache -> cache.asMap().values().stream().mapToLong(UserIndex::size).sum())
+                .description("Tasks held in the in-memory search indexes")
+                .register(registry);
+        Gauge.builder("tasks.search.indexed.users", indexes, Cache::estimatedSize)
+                .description("Users with a loaded search index")
+                .register(registry);
+    }
+
+    public record Hits(long total, List<Long> taskIds) {
+    }
+
+    record Clause(String term, boolean prefix) {
+    }
+
+    static List<Clause> parse(String query) {
+        Set<Clause> clauses = new LinkedHashSet<>();
+        if (query != null) {
+            for (String word : query.trim().split("\\s+")) {
+                boolean prefix = word.endsWith("*");
+                List<String> terms = tokens(word);
+                for (int i = 0; i < terms.size(); i++) {
+                    clauses.add(new Clause(terms.get(i), prefix && i == terms.size() - 1));
+                }
+            }
+        }
+        return clauses.stream().limit(MAX_CLAUSES).toList();
+    }
+
+    static List<String> tokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Document(Map<String, Integer> termFrequencies, int length, Long version) {
+
+        static Document of(TaskResponseDTO task) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            tokens(task.getTitle()).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+            tokens(task.getDescription()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+            return new Document(frequencies, length, task.getVersion());
+        }
+    }
+
+    /**
+     * One user's postings. Only the loading thread touches it until {@code pending} is cleared
+     * under the write lock; from then on events write and searches read under the lock.
+     */
+    static final class UserIndex {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        // Held while the snapshot streams in; a lock rather than a monitor so a virtual thread can unmount
+        private final Lock loadLock = new ReentrantLock();
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private List<TaskEventDTO> pending = new ArrayList<>();
+        private long totalLength;
+        private volatile int size;
+        private volatile boolean loaded;
+
+        int size() {
+            return size;
+        }
+
+        boolean load(Supplier<Stream<TaskResponseDTO>> snapshot) {
+            if (loaded) {
+                return false;
+            }
+            loadLock.lock();
+            try {
+                if (loaded) {
+                    return false;
+                }
+                try (Stream<TaskResponseDTO> tasks = snapshot.get()) {
+                    tasks.forEach(this::put);
+                }
+                lock.writeLock().lock();
+                try {
+                    pending.forEach(this::applyNow);
+                    pending = null;
+                    loaded = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                return true;
+            } finally {
+                loadLock.unlock();
+            }
+        }
+
+        void apply(TaskEventDTO event) {
+            lock.writeLock().lock();
+            try {
+                if (pending != null) {
+                    pending.add(event);
+                } else {
+                    applyNow(event);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        Hits search(List<Clause> clauses, long offset, int limit) {
+            lock.readLock().lock();
+            try {
+                Map<Long, Double> scores = null;
+                for (Clause clause : clauses) {
+                    Map<Long, Double> matched = match(clause);
+                    if (scores == null) {
+                        scores = matched;
+                    } else {
+                        scores.keySet().retainAll(matched.keySet());
+                        scores.replaceAll((id, score) -> score + matched.get(id));
+                    }
+                    if (scores.isEmpty()) {
+                        return new Hits(0, List.of());
+                    }
+                }
+                List<Long> ranked = scores.entrySet().stream()
+                        .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                        .skip(offset)
+                        .limit(limit)
+                        .map(Map.Entry::getKey)
+                        .toList();
+                return new Hits(scores.size(), ranked);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private Map<Long, Double> match(Clause clause) {
+            Map<String, Map<Long, Integer>> terms = clause.prefix()
+                    ? postings.subMap(clause.term(), true, clause.term() + Character.MAX_VALUE, false)
+                    : postings.containsKey(clause.term())
+                    ? Map.of(clause.term(), postings.get(clause.term()))
+                    : Map.of();
+            Map<Long, Double> scores = new HashMap<>();
+            double averageLength = documents.isEmpty() ? 1 : (double) totalLength / documents.size();
+            terms.values().forEach(postingList -> {
+                int documentFrequency = postingList.size();
+                double idf = Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                postingList.forEach((taskId, frequency) -> {
+                    double norm = frequency + K1 * (1 - B + B * documents.get(taskId).length() / averageLength);
+                    scores.merge(taskId, idf * frequency * (K1 + 1) / norm, Double::sum);
+                });
+            });
+            return scores;
+        }
+
+        private void applyNow(TaskEventDTO event) {
+            if (TaskEventDTO.DELETED.equals(event.type())) {
+                remove(event.taskId());
+            } else if (event.task() != null) {
+                put(event.task());
+            }
+        }
+
+        private void put(TaskResponseDTO task) {
+            Document previous = documents.get(task.getId());
+            // Listeners for two commits can run out of order; never go back to an older version
+            if (previous != null && previous.version() != null && task.getVersion() != null
+                    && task.getVersion() < previous.version()) {
+                return;
+            }
+            remove(task.getId());
+            Document document = Document.of(task);
+            document.termFrequencies().forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(task.getId(), frequency));
+            documents.put(task.getId(), document);
+            totalLength += document.length();
+            size = documents.size();
+        }
+
+        private void remove(Long taskId) {
+            Document document = documents.remove(taskId);
+            if (document == null) {
+                return;
+            }
+            document.termFrequencies().keySet().forEach(term -> {
+                Map<Long, Integer> postingList = postings.get(term);
+                postingList.remove(taskId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            });
+            totalLength -= document.length();
+            size = documents.size();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.task.services;
+
+import com.example.task.dto.PageDTO;
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.repository.TaskFilter;
+import com.example.task.repository.TaskRepository;
+import com.example.task.utils.PrimaryReads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over the caller's tasks. Matching and ranking happen in {@link TaskSearchIndex};
+ * the database is only asked for the tasks on the requested page, by primary key, so results
+ * always show the current title and completion state.
+ */
+@Slf4j
+@Service
+public class TaskSearchService {
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Value("${tasks.search.default-page-size:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${tasks.search.max-page-size:100}")
+    private int maxPageSize = 100;
+
+    @Transactional(readOnly = true)
+    public PageDTO<TaskResponseDTO> search(Long userId, String query, Integer page, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        int pageNumber = page == null ? 0 : Math.max(page, 0);
+
+        // The index only follows events once loaded, so it must not start from a lagging replica
+        TaskSearchIndex.Hits hits = taskSearchIndex.search(userId, query, (long) pageNumber * pageSize, pageSize,
+                () -> PrimaryReads.call(() -> taskRepository.streamViews(TaskFilter.forUser(userId))));
+        List<TaskResponseDTO> tasks = hits.taskIds().isEmpty() ? List.of() : inRankOrder(userId, hits.taskIds());
+
+        log.debug("Search for user ID {} matched {} tasks, returning page {}", userId, hits.total(), pageNumber);
+        int totalPages = (int) ((hits.total() + pageSize - 1) / pageSize);
+        return new PageDTO<>(tasks, pageNumber, pageSize, hits.total(), totalPages);
+    }
+
+    // A task deleted since it was ranked is left out rather than failing the page
+    private List<TaskResponseDTO> inRankOrder(Long userId, List<Long> taskIds) {
+        Map<Long, TaskResponseDTO> byId = taskRepository.findOwnedViewsByIds(userId, taskIds).stream()
+                .collect(Collectors.toMap(TaskResponseDTO::getId, Function.identity()));
+        return taskIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -1,16 +1,37 @@
 package com.example.task.services;
 
+import com.example.task.dto.BulkItemResultDTO;
+import com.example.task.dto.BulkResultDTO;
+import com.example.task.dto.TaskDayCountDTO;
+import com.example.task.dto.TaskEventDTO;
+import com.example.task.dto.TaskPageDTO;
 import com.example.task.dto.TaskResponseDTO;
 import com.example.task.entity.Task;
+import com.example.task.entity.TaskChange;
 import com.example.task.entity.User;
+import com.example.task.exception.InvalidDateRangeException;
+import com.example.task.exception.TaskVersionMismatchException;
+import com.example.task.repository.TaskChangeRepository;
+import com.example.task.repository.TaskFilter;
 import com.example.task.repository.TaskRepository;
 import com.example.task.repository.UserRepository;
+import com.example.task.utils.TaskCursor;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 @Slf4j
 @Service
 public class TaskService {
@@ -21,103 +42,303 @@ public class TaskService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TaskChangeRepository taskChangeRepository;
+
+    @Autowired
+    private Validator validator;
+
+    // Listeners such as TaskEventBroadcaster receive these after the transaction commits
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${tasks.page.default-size:100}")
+    private int defaultPageSize = 100;
+
+    @Value("${tasks.page.max-size:500}")
+    private int maxPageSize = 500;
+
+    @Value("${tasks.calendar.max-days:366}")
+    private int maxCalendarDays = 366;
+
+    @Transactional(readOnly = true)
     public List<TaskResponseDTO> getAllTasks(Long userId) {
-        log.info("Fetching all tasks for user ID: {}", userId);
-        List<Task> tasks = taskRepository.findByDateAndCompletedOptional(null, null, userId);
-        log.info("Total tasks retrieved for user {}: {}", userId, tasks.size());
-        return tasks.stream().map(this::toDTO).collect(Collectors.toList());
+        log.debug("Fetching all tasks for user ID: {}", userId);
+        List<TaskResponseDTO> tasks = taskRepository.findViews(TaskFilter.forUser(userId));
+        log.debug("Total tasks retrieved for user {}: {}", userId, tasks.size());
+        return tasks;
     }
 
-    public Optional<TaskResponseDTO> getTaskById(Long id) {
-        log.info("Fetching task with ID: {}", id);
-        Optional<Task> task = taskRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<TaskResponseDTO> getTaskById(Long id, Long userId) {
+        log.debug("Fetching task with ID {} for user ID {}", id, userId);
+        Optional<TaskResponseDTO> task = taskRepository.findOwnedViewById(id, userId);
 
         if (task.isEmpty()) {
-            log.warn("Task with ID {} not found", id);
+            log.debug("Task with ID {} not found for user ID {}", id, userId);
         } else {
-            log.info("Task with ID {} found", id);
+            log.debug("Task with ID {} found", id);
         }
 
-        return task.map(this::toDTO);
+        return task;
     }
 
-    public List<TaskResponseDTO> getFilteredTasks(Date date, Boolean completed, Long userId) {
-        log.info("Filtering tasks for user ID {} with date={} and completed={}", userId, date, completed);
-        List<Task> tasks = taskRepository.findByDateAndCompletedOptional(date, completed, userId);
-        log.info("Total filtered tasks retrieved: {}", tasks.size());
-        return tasks.stream().map(this::toDTO).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TaskResponseDTO> getFilteredTasks(TaskFilter filter) {
+        log.debug("Filtering tasks with {}", filter);
+        List<TaskResponseDTO> tasks = taskRepository.findViews(filter);
+        log.debug("Total filtered tasks retrieved: {}", tasks.size());
+        return tasks;
     }
 
+    @Transactional(readOnly = true)
+    public TaskPageDTO getTaskPage(TaskFilter filter, String cursor, Integer limit) {
+        long afterId = TaskCursor.decode(cursor);
+        int pageSize = limit == null ? defaultPageSize : Math.min(Math.max(limit, 1), maxPageSize);
+        log.debug("Fetching task page for user ID {} after task {} (size {})", filter.getUserId(), afterId, pageSize);
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<TaskResponseDTO> tasks =
+                taskRepository.findViewPage(filter, afterId, pageSize + 1);
+        boolean hasMore = tasks.size() > pageSize;
+        List<TaskResponseDTO> page = hasMore ? tasks.subList(0, pageSize) : tasks;
+
+        String nextCursor = hasMore ? TaskCursor.encode(page.get(page.size() - 1).getId()) : null;
+        return new TaskPageDTO(page, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamTasks(TaskFilter filter, Consumer<TaskResponseDTO> sink) {
+        log.debug("Streaming tasks with {}", filter);
+        try (Stream<TaskResponseDTO> tasks = taskRepository.streamViews(filter)) {
+            tasks.forEach(sink);
+        }
+    }
+
+    // Days without tasks are left out; a month view is one grouped query instead of a request per day
+    @Transactional(readOnly = true)
+    public List<TaskDayCountDTO> getCalendar(Long userId, LocalDate from, LocalDate to) {
+        TaskFilter range = TaskFilter.forUser(userId).between(from, to);
+        if (ChronoUnit.DAYS.between(from, to) >= maxCalendarDays) {
+            throw new InvalidDateRangeException("at most " + maxCalendarDays + " days can be counted at once");
+        }
+        log.debug("Counting tasks per day for user ID {} from {} to {}", userId, from, to);
+        return taskRepository.countByDay(userId, range.getFrom(), range.getUntil());
+    }
+
+    @Transactional
     public Optional<TaskResponseDTO> saveTask(Task task, Long userId) {
-        log.info("Saving task for user ID: {}", userId);
-        Optional<User> user = userRepository.findById(userId);
-        if (user.isEmpty()) {
-            log.warn("User with ID {} not found. Cannot save task.", userId);
+        log.debug("Saving task for user ID: {}", userId);
+        // The counter UPDATE doubles as the existence check, so the user row is never loaded
+        if (userRepository.adjustTasksCount(userId, 1) == 0) {
+            log.debug("User with ID {} not found. Cannot save task.", userId);
             return Optional.empty();
         }
+        log.debug("Updated tasksCount for user ID: {}", userId);
 
-        User u = user.get();
-        u.setTasksCount(u.getTasksCount() + 1);
-        userRepository.save(u);
-        log.info("Updated tasksCount for user ID: {}", userId);
-
-        task.setUser(u);
+        task.setUser(userRepository.getReferenceById(userId));
         Task newTask = taskRepository.save(task);
-        log.info("Task saved successfully with ID: {}", newTask.getId());
+        taskChangeRepository.record(userId, List.of(newTask.getId()), TaskChange.Type.UPSERT);
+        log.debug("Task saved successfully with ID: {}", newTask.getId());
 
-        return Optional.of(toDTO(newTask));
+        TaskResponseDTO saved = TaskMapper.toDTO(newTask);
+        eventPublisher.publishEvent(TaskEventDTO.created(saved));
+        return Optional.of(saved);
     }
 
-    public Optional<TaskResponseDTO> updateTask(Task task) {
-        log.info("Updating task with ID: {}", task.getId());
-        Optional<Task> existing = taskRepository.findById(task.getId());
-
-        if (existing.isEmpty()) {
-            log.warn("Task with ID {} not found. Update failed.", task.getId());
+    /**
+     * One {@code UPDATE ... WHERE id = ? AND user_id = ?}: the task is neither loaded nor
+     * changed unless it belongs to the user, and the response is built from the request.
+     * With an expected version (If-Match) the update also requires that version and a
+     * mismatch is reported as {@link TaskVersionMismatchException}.
+     */
+    @Transactional
+    public Optional<TaskResponseDTO> updateTask(Task task, Long userId, Long expectedVersion) {
+        log.debug("Updating task with ID {} for user ID {} at version {}", task.getId(), userId, expectedVersion);
+        if (task.getId() == null) {
+            return Optional.empty();
+        }
+        // Creates and deletes lock the user row through the counter update; updates have to ask for it
+        userRepository.lockForTaskChanges(userId);
+        if (taskRepository.updateOwned(task, userId, expectedVersion) == 0) {
+            // Only a failed conditional update needs the second query to tell a stale version from a missing task
+            if (expectedVersion != null && taskRepository.existsByIdAndUserId(task.getId(), userId)) {
+                throw new TaskVersionMismatchException(task.getId());
+            }
+            log.debug("Task with ID {} not found for user ID {}. Update failed.", task.getId(), userId);
             return Optional.empty();
         }
 
-        Task found = existing.get();
-        found.setCompleted(task.isCompleted());
-        found.setDate(task.getDate());
-        found.setDescription(task.getDescription());
-        found.setTitle(task.getTitle());
+        taskChangeRepository.record(userId, List.of(task.getId()), TaskChange.Type.UPSERT);
+        log.debug("Task with ID {} updated successfully", task.getId());
+        TaskResponseDTO updated = new TaskResponseDTO(task.getId(), task.getTitle(), task.getDescription(),
+                task.isCompleted(), task.getDate(), userId, expectedVersion == null ? null : expectedVersion + 1);
+        eventPublisher.publishEvent(TaskEventDTO.updated(updated));
+        return Optional.of(updated);
+    }
 
-        Task updatedTask = taskRepository.save(found);
-        log.info("Task with ID {} updated successfully", updatedTask.getId());
+    @Transactional
+    public boolean deleteTask(Long id, Long userId) {
+        log.debug("Attempting to delete task with ID {} for user ID {}", id, userId);
+        if (taskRepository.deleteOwned(id, userId) == 0) {
+            log.debug("Task with ID {} not found for user ID {}. Deletion skipped.", id, userId);
+            return false;
+        }
 
-        return Optional.of(toDTO(updatedTask));
+        userRepository.adjustTasksCount(userId, -1);
+        taskChangeRepository.record(userId, List.of(id), TaskChange.Type.DELETE);
+        eventPublisher.publishEvent(TaskEventDTO.deleted(id, userId));
+        log.debug("Task with ID {} deleted successfully", id);
+        return true;
     }
 
-    public boolean deleteTask(Long id) {
-        log.info("Attempting to delete task with ID: {}", id);
-        Optional<Task> task = taskRepository.findById(id);
-        task.ifPresent(taskRepository::delete);
+    /**
+     * Creates all valid tasks in one transaction. Ids come from the pooled sequence,
+     * so Hibernate sends the inserts as JDBC batches when the transaction flushes.
+     */
+    @Transactional
+    public BulkResultDTO createTasks(List<Task> tasks, Long userId) {
+        log.debug("Bulk creating {} tasks for user ID: {}", tasks.size(), userId);
+        List<BulkItemResultDTO> results = new ArrayList<>();
+        Map<Integer, Task> valid = validateAll(tasks, results);
+        if (valid.isEmpty()) {
+            return new BulkResultDTO(results);
+        }
 
-        if (task.isPresent()) {
-            log.info("Task with ID {} deleted successfully", id);
-        } else {
-            log.warn("Task with ID {} not found. Deletion skipped.", id);
+        if (userRepository.adjustTasksCount(userId, valid.size()) == 0) {
+            log.debug("User with ID {} not found. Cannot save tasks.", userId);
+            valid.keySet().forEach(i -> results.add(
+                    BulkItemResultDTO.failure(i, null, BulkItemResultDTO.NOT_FOUND, "User not found")));
+            return new BulkResultDTO(results);
         }
 
-        return task.isPresent();
+        User user = userRepository.getReferenceById(userId);
+        valid.values().forEach(task -> {
+            task.setId(null);
+            task.setUser(user);
+        });
+        taskRepository.saveAll(valid.values());
+        taskChangeRepository.record(userId, valid.values().stream().map(Task::getId).toList(), TaskChange.Type.UPSERT);
+        valid.forEach((i, task) -> {
+            TaskResponseDTO created = TaskMapper.toDTO(task);
+            eventPublisher.publishEvent(TaskEventDTO.created(created));
+            results.add(BulkItemResultDTO.success(i, BulkItemResultDTO.CREATED, created));
+        });
+
+        log.debug("Bulk created {} tasks for user ID: {}", valid.size(), userId);
+        return new BulkResultDTO(results);
     }
 
-    private TaskResponseDTO toDTO(Task task) {
-        TaskResponseDTO dto = new TaskResponseDTO();
-        dto.setId(task.getId());
-        dto.setCompleted(task.isCompleted());
-        dto.setDate(task.getDate());
-        dto.setDescription(task.getDescription());
-        dto.setTitle(task.getTitle());
+    /**
+     * Loads the caller's target tasks with one IN query; dirty checking then flushes the changes as
+     * batched UPDATEs. Ids the caller does not own are reported as not found, like missing ones.
+     */
+    @Transactional
+    public BulkResultDTO updateTasks(List<Task> tasks, Long userId) {
+        log.debug("Bulk updating {} tasks for user ID {}", tasks.size(), userId);
+        List<BulkItemResultDTO> results = new ArrayList<>();
+        Map<Integer, Task> valid = validateAll(tasks, results);
+        valid.entrySet().removeIf(entry -> {
+            if (entry.getValue().getId() == null) {
+                results.add(BulkItemResultDTO.failure(entry.getKey(), null, BulkItemResultDTO.INVALID, "id: must not be null"));
+                return true;
+            }
+            return false;
+        });
+        if (valid.isEmpty()) {
+            return new BulkResultDTO(results);
+        }
 
-        if (task.getUser() != null) {
-            dto.setUserId(task.getUser().getId());
-        } else {
-            log.warn("Task ID {} has no associated user", task.getId());
-            dto.setUserId(null);
+        // Locked before loading, like single updates, so the owner's change log stays in commit order
+        userRepository.lockForTaskChanges(userId);
+        Map<Long, Task> existing = taskRepository.findOwnedByIds(userId, valid.values().stream().map(Task::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        Map<Integer, Task> updated = new LinkedHashMap<>();
+        valid.forEach((i, task) -> {
+            Task found = existing.get(task.getId());
+            if (found == null) {
+                results.add(BulkItemResultDTO.failure(i, task.getId(), BulkItemResultDTO.NOT_FOUND, "Task not found"));
+                return;
+            }
+            found.setCompleted(task.isCompleted());
+            found.setDate(task.getDate());
+            found.setDescription(task.getDescription());
+            found.setTitle(task.getTitle());
+            updated.put(i, found);
+        });
+        // Flush now so that the returned tasks carry their bumped versions
+        taskRepository.flush();
+        taskChangeRepository.record(userId, updated.values().stream().map(Task::getId).distinct().toList(),
+                TaskChange.Type.UPSERT);
+        updated.forEach((i, found) -> {
+            TaskResponseDTO dto = TaskMapper.toDTO(found);
+            eventPublisher.publishEvent(TaskEventDTO.updated(dto));
+            results.add(BulkItemResultDTO.success(i, BulkItemResultDTO.UPDATED, dto));
+        });
+
+        log.debug("Bulk updated {} of {} tasks", existing.size(), tasks.size());
+        return new BulkResultDTO(results);
+    }
+
+    /**
+     * Deletes the caller's tasks with a single {@code DELETE ... WHERE user_id = ? AND id IN (...)} and one
+     * counter update. Ids the caller does not own are reported as not found, like missing ones.
+     */
+    @Transactional
+    public BulkResultDTO deleteTasks(List<Long> ids, Long userId) {
+        log.debug("Bulk deleting {} tasks for user ID {}", ids.size(), userId);
+        List<BulkItemResultDTO> results = new ArrayList<>();
+        List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Set<Long> owned = Set.of();
+        if (!requested.isEmpty()) {
+            // Every task write of the user takes this lock, so the owned ids stay accurate until the delete
+            userRepository.lockForTaskChanges(userId);
+            owned = new HashSet<>(taskRepository.findOwnedIds(userId, requested));
+        }
+
+        Set<Long> deleted = new LinkedHashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id != null && owned.contains(id) && deleted.add(id)) {
+                results.add(BulkItemResultDTO.deleted(i, id));
+            } else {
+                results.add(BulkItemResultDTO.failure(i, id, BulkItemResultDTO.NOT_FOUND, "Task not found"));
+            }
         }
 
-        return dto;
+        if (!deleted.isEmpty()) {
+            taskRepository.deleteOwned(deleted, userId);
+            userRepository.adjustTasksCount(userId, -deleted.size());
+            taskChangeRepository.record(userId, deleted, TaskChange.Type.DELETE);
+            deleted.forEach(taskId -> eventPublisher.publishEvent(TaskEventDTO.deleted(taskId, userId)));
+        }
+
+        log.debug("Bulk deleted {} of {} tasks", deleted.size(), ids.size());
+        return new BulkResultDTO(results);
+    }
+
+    // Splits off items that fail bean validation, keyed by their position in the request
+    private Map<Integer, Task> validateAll(List<Task> tasks, List<BulkItemResultDTO> results) {
+        Map<Integer, Task> valid = new LinkedHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task == null) {
+                results.add(BulkItemResultDTO.failure(i, null, BulkItemResultDTO.INVALID, "task: must not be null"));
+                continue;
+            }
+            Set<ConstraintViolation<Task>> violations = validator.validate(task);
+            if (violations.isEmpty()) {
+                valid.put(i, task);
+            } else {
+                String message = violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                results.add(BulkItemResultDTO.failure(i, task.getId(), BulkItemResultDTO.INVALID, message));
+            }
+        }
+        return valid;
     }
 }
@@ -0,0 +1,116 @@
+package com.example.task.services;
+
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.dto.TaskSyncDTO;
+import com.example.task.entity.TaskChange;
+import com.example.task.exception.SyncTokenExpiredException;
+import com.example.task.repository.TaskChangeRepository;
+import com.example.task.repository.TaskFilter;
+import com.example.task.repository.TaskRepository;
+import com.example.task.utils.SyncToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Delta sync over the task change log: a client sends the token from its previous sync and gets
+ * back only the tasks written or deleted since, so a poll costs in proportion to what changed.
+ * <p>
+ * Changes are purged oldest id first, so a token is only good while the oldest retained change
+ * directly follows it or an earlier one. Any older token may have missed purged changes and gets
+ * {@link SyncTokenExpiredException}, however recently it was issued.
+ */
+@Slf4j
+@Service
+public class TaskSyncService {
+
+    @Autowired
+    private TaskChangeRepository taskChangeRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JobLocks jobLocks;
+
+    @Value("${tasks.sync.max-changes:1000}")
+    private int maxChanges = 1000;
+
+    @Value("${tasks.sync.retention:7d}")
+    private Duration retention = Duration.ofDays(7);
+
+    @Transactional(readOnly = true)
+    public TaskSyncDTO sync(Long userId, String token) {
+        if (token == null || token.isBlank()) {
+            return snapshot(userId);
+        }
+
+        SyncToken position = SyncToken.decode(token);
+        if (position.changeId() < taskChangeRepository.findOldestId() - 1) {
+            throw new SyncTokenExpiredException();
+        }
+
+        List<TaskChange> changes = taskChangeRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(
+                userId, position.changeId(), Limit.of(maxChanges + 1));
+        boolean hasMore = changes.size() > maxChanges;
+        if (hasMore) {
+            changes = changes.subList(0, maxChanges);
+        }
+
+        // Several changes to one task collapse into its current state
+        Map<Long, TaskChange.Type> latest = new LinkedHashMap<>();
+        changes.forEach(change -> latest.put(change.getTaskId(), change.getType()));
+        List<Long> upserted = latest.entrySet().stream()
+                .filter(entry -> entry.getValue() == TaskChange.Type.UPSERT)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        List<TaskResponseDTO> updated = upserted.isEmpty()
+                ? List.of()
+                : taskRepository.findOwnedViewsByIds(userId, upserted);
+        // A task deleted after this page's last change is already gone; report it as deleted now
+        Set<Long> found = new HashSet<>();
+        updated.forEach(task -> found.add(task.getId()));
+        List<Long> deleted = latest.keySet().stream().filter(id -> !found.contains(id)).toList();
+
+        long lastChangeId = changes.isEmpty() ? position.changeId() : changes.get(changes.size() - 1).getId();
+        log.debug("Synced user ID {} from change {} to {}: {} updated, {} deleted",
+                userId, position.changeId(), lastChangeId, updated.size(), deleted.size());
+        return new TaskSyncDTO(false, updated, deleted, newToken(lastChangeId), hasMore);
+    }
+
+    @Scheduled(cron = "${tasks.sync.purge-cron:0 45 3 * * *}")
+    @Transactional
+    public int purgeChanges() {
+        if (!jobLocks.tryLock("task-changes.purge", JobLocks.NIGHTLY_JOB_HOLD)) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(retention);
+        // Without a change since the cutoff everything stays until there is one, so the log never empties
+        Long boundaryId = taskChangeRepository.findFirstIdSince(cutoff);
+        int purged = boundaryId == null ? 0 : taskChangeRepository.deleteOlderThan(boundaryId, cutoff);
+        log.info("Purged {} task change(s) older than {}", purged, retention);
+        return purged;
+    }
+
+    // The position is read before the tasks, so a change committed in between is sent again, never lost.
+    // It starts no further back than the purged changes, or a user with none left would never catch up.
+    private TaskSyncDTO snapshot(Long userId) {
+        long latestChangeId = Math.max(taskChangeRepository.findLatestId(userId), taskChangeRepository.findOldestId() - 1);
+        List<TaskResponseDTO> tasks = taskRepository.findViews(TaskFilter.forUser(userId));
+        log.debug("Full sync for user ID {} at change {}: {} tasks", userId, latestChangeId, tasks.size());
+        return new TaskSyncDTO(true, tasks, List.of(), newToken(latestChangeId), false);
+    }
+
+    private static String newToken(long changeId) {
+        return new SyncToken(changeId).encode();
+    }
+}
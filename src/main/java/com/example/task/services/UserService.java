@@ -1,12 +1,23 @@
 package com.example.task.services;
 
+import com.example.task.dto.PageDTO;
 import com.example.task.dto.UserResponseDTO;
-import com.example.task.entity.Task;
+import com.example.task.dto.UserTasksDTO;
 import com.example.task.entity.User;
+import com.example.task.exception.InvalidSortException;
+import com.example.task.repository.TaskChangeRepository;
+import com.example.task.repository.TaskFilter;
 import com.example.task.repository.UserRepository;
+import com.example.task.utils.AfterCommit;
+import com.example.task.utils.JwtTokenCache;
+import com.example.task.utils.TokenRevocationList;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
@@ -14,23 +25,49 @@ import java.util.*;
 @Service
 public class UserService {
 
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "name", "tasksCount");
+
     @Autowired
     private UserRepository userRepository;
 
-    public Optional<User> getUserAll(Long id) {
-        log.info("Fetching complete user data (with tasks) for user ID: {}", id);
-        Optional<User> user = userRepository.findById(id);
-        if (user.isEmpty()) {
-            log.warn("User with ID {} not found", id);
-        }
-        return user;
+    @Autowired
+    private JwtTokenCache tokenCache;
+
+    @Autowired
+    private TokenRevocationList revocations;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TaskChangeRepository taskChangeRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskListingCache taskListingCache;
+
+    @Autowired
+    private ClusterCacheSync clusterCacheSync;
+
+    @Value("${users.page.default-size:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${users.page.max-size:100}")
+    private int maxPageSize = 100;
+
+    @Transactional(readOnly = true)
+    public Optional<UserTasksDTO> getUserWithTasks(Long id, String cursor, Integer limit) {
+        log.debug("Fetching user ID {} with a page of tasks after cursor {}", id, cursor);
+        return getUserById(id).map(user -> new UserTasksDTO(user, taskService.getTaskPage(TaskFilter.forUser(id), cursor, limit)));
     }
 
     public Optional<UserResponseDTO> getUserById(Long id) {
-        log.info("Fetching summary user data for user ID: {}", id);
+        log.debug("Fetching summary user data for user ID: {}", id);
         Optional<User> user = userRepository.findById(id);
         if (user.isEmpty()) {
-            log.warn("User with ID {} not found", id);
+            log.debug("User with ID {} not found", id);
             return Optional.empty();
         }
 
@@ -39,24 +76,30 @@ public class UserService {
         dto.setId(u.getId());
         dto.setName(u.getName());
         dto.setTasksCount(u.getTasksCount());
-        log.info("Returning DTO for user ID: {}", id);
+        log.debug("Returning DTO for user ID: {}", id);
         return Optional.of(dto);
     }
 
-    public List<User> getAllUsers() {
-        log.info("Fetching all users");
-        List<User> users = userRepository.findAll();
-        log.info("Total users fetched: {}", users.size());
-        return users;
+    @Transactional(readOnly = true)
+    public PageDTO<UserResponseDTO> getUserPage(Integer page, Integer size, String sort) {
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        PageRequest request = PageRequest.of(page == null ? 0 : Math.max(page, 0), pageSize, parseSort(sort));
+        log.debug("Fetching users page {} (size {}, sort {})", request.getPageNumber(), pageSize, request.getSort());
+
+        PageDTO<UserResponseDTO> result = PageDTO.from(userRepository.findSummaries(request));
+        log.debug("Returning {} of {} users", result.getContent().size(), result.getTotalElements());
+        return result;
     }
 
+    @Transactional
     public Optional<User> createUser(User user) {
-        log.info("Creating user with name: {}", user.getName());
+        log.debug("Creating user with name: {}", user.getName());
         userRepository.save(user);
         Optional<User> created = userRepository.findById(user.getId());
 
         if (created.isPresent()) {
-            log.info("User created successfully with ID: {}", created.get().getId());
+            clusterCacheSync.userChanged(created.get().getId());
+            log.debug("User created successfully with ID: {}", created.get().getId());
         } else {
             log.error("User creation failed for name: {}", user.getName());
         }
@@ -64,34 +107,49 @@ public class UserService {
         return created;
     }
 
+    // One read-write transaction: the lookup must not go to a replica and leave its connection to the save
+    @Transactional
     public Optional<User> updateUser(User user) {
-        log.info("Updating user with ID: {}", user.getId());
+        log.debug("Updating user with ID: {}", user.getId());
         Optional<User> existing = userRepository.findById(user.getId());
 
         if (existing.isEmpty()) {
-            log.warn("User with ID {} not found. Cannot update.", user.getId());
+            log.debug("User with ID {} not found. Cannot update.", user.getId());
             return Optional.empty();
         }
 
         User existingUser = existing.get();
         existingUser.setName(user.getName());
-        existingUser.setTasks((ArrayList<Task>) user.getTasks());
+        existingUser.setTasks(user.getTasks());
         userRepository.save(existingUser);
-        log.info("User with ID {} updated successfully", user.getId());
+        clusterCacheSync.userChanged(existingUser.getId());
+        log.debug("User with ID {} updated successfully", user.getId());
 
         return Optional.of(existingUser);
     }
 
+    @Transactional
     public boolean deleteUser(Long id) {
-        log.info("Deleting user with ID: {}", id);
+        log.debug("Deleting user with ID: {}", id);
         Optional<User> user = userRepository.findById(id);
 
         if (user.isPresent()) {
             userRepository.delete(user.get());
-            log.info("User with ID {} deleted successfully", id);
+            // Access tokens are trusted without a lookup, so revoke the ones already issued
+            refreshTokenService.revokeAllForUser(id);
+            taskChangeRepository.deleteByUserId(id);
+            // Cascaded task deletes publish no task events, so drop cached listings here
+            taskListingCache.invalidate(id);
+            // Publishes on the bus itself once the delete commits
+            clusterCacheSync.userChanged(id);
+            // Stored with the delete, so a failure rolls it back instead of leaving tokens valid
+            String username = user.get().getUsername();
+            revocations.revokeUser(username);
+            AfterCommit.run(() -> tokenCache.evictUser(username));
+            log.debug("User with ID {} deleted successfully", id);
             return true;
         } else {
-            log.warn("User with ID {} not found. Delete aborted.", id);
+            log.debug("User with ID {} not found. Delete aborted.", id);
             return false;
         }
     }
@@ -99,5 +157,23 @@ public class UserService {
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
+
+    // "field" or "field,asc|desc"; only whitelisted summary columns, always tie-broken by id
+    private static Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by("id");
+        }
+        String[] parts = sort.split(",");
+        if (parts.length > 2 || !SORTABLE_FIELDS.contains(parts[0].trim())) {
+            throw new InvalidSortException(sort);
+        }
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new InvalidSortException(sort));
+        }
+        Sort order = Sort.by(direction, parts[0].trim());
+        return parts[0].trim().equals("id") ? order : order.and(Sort.by("id"));
+    }
 }
 
@@ -0,0 +1,50 @@
+package com.example.task.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers work to the commit of the surrounding transaction, for side effects other transactions
+ * or instances must not see before the data they describe.
+ * <p>
+ * Actions registered from inside another after-commit callback are never run, since the
+ * transaction's synchronizations have already been collected by then.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs the action once the current transaction commits, never if it rolls back; outside a
+     * transaction it runs right away.
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs the action now and, inside a transaction, again once it commits. For cache evictions:
+     * a concurrent reader may re-cache the old state between the write and its commit.
+     */
+    public static void nowAndAgain(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.task.utils;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Principal built by {@link JwtFilter} from access-token claims, so handlers can scope
+ * queries to the caller's user id without looking the user up.
+ */
+public class AuthenticatedUser extends User {
+
+    private final Long id;
+
+    public AuthenticatedUser(Long id, String username, Collection<? extends GrantedAuthority> authorities) {
+        super(username, "", authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
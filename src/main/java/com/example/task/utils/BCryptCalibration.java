@@ -0,0 +1,36 @@
+package com.example.task.utils;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the highest BCrypt strength whose hash still fits a latency budget on this machine.
+ * Each step doubles the cost, so we stop at the first strength that would overshoot.
+ */
+public final class BCryptCalibration {
+
+    private static final String PROBE = "calibration-probe-password";
+
+    private BCryptCalibration() {
+    }
+
+    public static int strengthFor(Duration target, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        // The first hash pays for class loading and JIT warm-up, so it is not measured
+        new BCryptPasswordEncoder(minStrength).encode(PROBE);
+        long nanos = measure(minStrength);
+        while (strength < maxStrength && nanos * 2 <= target.toNanos()) {
+            strength++;
+            nanos = measure(strength);
+        }
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(PROBE);
+        return System.nanoTime() - start;
+    }
+}
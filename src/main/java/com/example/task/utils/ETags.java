@@ -0,0 +1,63 @@
+package com.example.task.utils;
+
+import com.example.task.dto.TaskResponseDTO;
+
+import java.util.List;
+
+/**
+ * Entity tags derived from row versions, so conditional requests are answered without
+ * serializing the body. A single task's tag is its version; a listing's tag is a hash of
+ * the ids and versions it contains, which changes on any create, update or delete.
+ */
+public final class ETags {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ETags() {
+    }
+
+    public static String forVersion(long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String forListing(List<TaskResponseDTO> tasks, String nextCursor) {
+        long hash = FNV_OFFSET;
+        for (TaskResponseDTO task : tasks) {
+            hash = mix(hash, task.getId() == null ? 0 : task.getId());
+            hash = mix(hash, task.getVersion() == null ? 0 : task.getVersion());
+        }
+        if (nextCursor != null) {
+            hash = mix(hash, nextCursor.hashCode());
+        }
+        // Weak: equal content, not byte-identical responses
+        return "W/\"" + tasks.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Reads the version from a single strong {@code If-Match} tag: null when the header is absent
+     * or {@code *} (the task only has to exist), -1 for a tag that is not ours and so never matches.
+     */
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
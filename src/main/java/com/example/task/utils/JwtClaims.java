@@ -0,0 +1,66 @@
+package com.example.task.utils;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable view of the claims of a token that has already been verified.
+ * Safe to share across threads and to keep for the lifetime of the token.
+ */
+public final class JwtClaims {
+
+    static final String USER_ID = "uid";
+    static final String ROLES = "roles";
+
+    private final String id;
+    private final String subject;
+    private final Long userId;
+    private final List<String> roles;
+    private final Date issuedAt;
+    private final Date expiration;
+
+    JwtClaims(Claims claims) {
+        this.id = claims.getId();
+        this.subject = claims.getSubject();
+        Number userId = claims.get(USER_ID, Number.class);
+        this.userId = userId == null ? null : userId.longValue();
+        List<?> roles = claims.get(ROLES, List.class);
+        this.roles = roles == null ? List.of() : roles.stream().map(String::valueOf).toList();
+        this.issuedAt = copy(claims.getIssuedAt());
+        this.expiration = copy(claims.getExpiration());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public Date getIssuedAt() {
+        return copy(issuedAt);
+    }
+
+    public Date getExpiration() {
+        return copy(expiration);
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    private static Date copy(Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+}
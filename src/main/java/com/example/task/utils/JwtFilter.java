@@ -1,6 +1,8 @@
 package com.example.task.utils;
 
-import com.example.task.services.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +10,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -24,7 +27,24 @@ public class JwtFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private TokenRevocationList revocations;
+
+    @Autowired
+    private JwtTokenCache tokenCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer cachedTimer;
+    private Timer verifiedTimer;
+    private Timer invalidTimer;
+
+    @PostConstruct
+    void initTimers() {
+        cachedTimer = verificationTimer("cached");
+        verifiedTimer = verificationTimer("verified");
+        invalidTimer = verificationTimer("invalid");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -33,28 +53,65 @@ public class JwtFilter extends OncePerRequestFilter {
 
         String authHeader = request.getHeader("Authorization");
         String token = null;
-        String username = null;
+        JwtClaims claims = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7);
+
+            // A token verified earlier needs neither signature checks nor a user lookup
+            Timer.Sample sample = Timer.start(meterRegistry);
+            UserDetails cached = tokenCache.get(token);
+            if (cached != null) {
+                sample.stop(cachedTimer);
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    authenticate(request, cached);
+                }
+                filterChain.doFilter(request, response);
+                return;
+            }
+
             try {
-                username = jwtUtil.extractUsername(token);
+                claims = jwtUtil.parse(token);
+                sample.stop(verifiedTimer);
             } catch (Exception e) {
-                log.error("Invalid JWT token", e);
+                sample.stop(invalidTimer);
+                // Bad tokens are a client error; the request summary records them without a stack trace
+                log.debug("Invalid JWT token", e);
+                RequestSummary.put(request, "auth", "invalid_token");
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        if (claims != null && revocations.isRevoked(claims)) {
+            RequestSummary.put(request, "auth", "revoked_token");
+            claims = null;
+        }
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        // The signed claims are trusted as they are: no user lookup on the request path.
+        // Tokens issued before the user id became a claim are not accepted.
+        if (claims != null && claims.getUserId() != null && !claims.isExpired()
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = new AuthenticatedUser(claims.getUserId(), claims.getSubject(),
+                    claims.getRoles().stream().map(SimpleGrantedAuthority::new).toList());
+            authenticate(request, userDetails);
+            tokenCache.put(token, userDetails, claims.getExpiration());
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private Timer verificationTimer(String result) {
+        return Timer.builder("jwt.verification")
+                .description("Time spent resolving a bearer token, from cache or by signature check")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private void authenticate(HttpServletRequest request, UserDetails userDetails) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        RequestSummary.put(request, "user", userDetails.getUsername());
+    }
 }
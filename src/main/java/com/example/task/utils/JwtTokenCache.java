@@ -0,0 +1,132 @@
+package com.example.task.utils;
+
+import com.example.task.services.ClusterBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already verified JWTs and the user they resolved to.
+ * Entries are keyed by a SHA-256 of the raw token and expire at the token's own
+ * expiry, capped by {@code jwt.cache.max-ttl} so that deleted users cannot linger.
+ */
+@Component
+public class JwtTokenCache implements MeterBinder {
+
+    private static final String TOKENS_TOPIC = "jwt.cache.evicted-tokens";
+    private static final String USERS_TOPIC = "jwt.cache.evicted-users";
+
+    private final Cache<String, CachedToken> cache;
+    private final ClusterBus clusterBus;
+
+    public JwtTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize,
+                         @Value("${jwt.cache.max-ttl:5m}") Duration maxTtl,
+                         ClusterBus clusterBus) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(maxTtl.toNanos()))
+                .recordStats()
+                .build();
+        this.clusterBus = clusterBus;
+        clusterBus.subscribe(TOKENS_TOPIC, cache::invalidate);
+        clusterBus.subscribe(USERS_TOPIC, this::removeUser);
+    }
+
+    public UserDetails get(String token) {
+        CachedToken cached = cache.getIfPresent(hash(token));
+        // Caffeine expires lazily, so never trust an entry past the token's own expiry
+        if (cached == null || cached.expiresAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return cached.userDetails();
+    }
+
+    public void put(String token, UserDetails userDetails, Date expiration) {
+        if (expiration.getTime() > System.currentTimeMillis()) {
+            cache.put(hash(token), new CachedToken(userDetails, expiration.getTime()));
+        }
+    }
+
+    public void evict(String token) {
+        String key = hash(token);
+        cache.invalidate(key);
+        clusterBus.publish(TOKENS_TOPIC, key);
+    }
+
+    public void evictUser(String username) {
+        removeUser(username);
+        clusterBus.publish(USERS_TOPIC, username);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.cache.requests", cache, c -> c.stats().hitCount())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("jwt.cache.requests", cache, c -> c.stats().missCount())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("jwt.cache.evictions", cache, c -> c.stats().evictionCount())
+                .register(registry);
+        Gauge.builder("jwt.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .register(registry);
+        Gauge.builder("jwt.cache.size", cache, Cache::estimatedSize)
+                .register(registry);
+    }
+
+    private void removeUser(String username) {
+        cache.asMap().values().removeIf(cached -> cached.userDetails().getUsername().equals(username));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedToken(UserDetails userDetails, long expiresAtMillis) {
+    }
+
+    private static final class TokenExpiry implements Expiry<String, CachedToken> {
+
+        private final long maxTtlNanos;
+
+        private TokenExpiry(long maxTtlNanos) {
+            this.maxTtlNanos = maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+            long untilExpiry = TimeUnit.MILLISECONDS.toNanos(value.expiresAtMillis() - System.currentTimeMillis());
+            return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
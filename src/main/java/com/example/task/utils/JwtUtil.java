@@ -1,15 +1,20 @@
 package com.example.task.utils;
 
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
@@ -17,42 +22,50 @@ public class JwtUtil {
     @Value("${jwt.secret}")
     private String secret;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
-    }
+    // Kept short: access tokens are trusted without a user lookup until they expire or are revoked
+    @Value("${jwt.access-token.ttl:15m}")
+    private Duration accessTokenTtl;
+
+    // Both are immutable and thread-safe, so they are built once and shared by all requests
+    private Key signingKey;
+    private JwtParser parser;
 
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
 
-    public String generateToken(String username) {
+    /**
+     * Issues an access token carrying everything JwtFilter needs to authenticate the request:
+     * user id, username, roles and a unique token id that logout can revoke.
+     */
+    public String generateToken(Long userId, String username, Collection<? extends GrantedAuthority> authorities) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 hr
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .claim(JwtClaims.USER_ID, userId)
+                .claim(JwtClaims.ROLES, authorities.stream().map(GrantedAuthority::getAuthority).toList())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + accessTokenTtl.toMillis()))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        return extractUsername(token).equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration()
-                .before(new Date());
+    /**
+     * Verifies the signature and expiry of the token in a single parser run.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public JwtClaims parse(String token) {
+        return new JwtClaims(parser.parseClaimsJws(token).getBody());
     }
 
 }
-
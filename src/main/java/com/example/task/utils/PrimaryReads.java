@@ -0,0 +1,35 @@
+package com.example.task.utils;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks work whose reads must go to the primary database even inside a read-only transaction,
+ * for results that outlive the request (caches, indexes) and so must not start from a replica
+ * that is still catching up. Without replicas configured every call is a plain pass-through.
+ * <p>
+ * The database is chosen when a transaction runs its first statement, so that statement has to
+ * run inside {@link #call}.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> work) {
+        Boolean previous = FORCED.get();
+        FORCED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                FORCED.remove();
+            }
+        }
+    }
+
+    public static boolean isForced() {
+        return FORCED.get() != null;
+    }
+}
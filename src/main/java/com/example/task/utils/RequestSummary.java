@@ -0,0 +1,41 @@
+package com.example.task.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fields collected while a request is handled and written once, by {@link RequestSummaryFilter},
+ * as that request's single summary record. Outside a request every call is a no-op.
+ */
+public final class RequestSummary {
+
+    private static final String ATTRIBUTE = RequestSummary.class.getName();
+
+    private RequestSummary() {
+    }
+
+    public static void put(String key, Object value) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            put(servletAttributes.getRequest(), key, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void put(HttpServletRequest request, String key, Object value) {
+        if (request.getAttribute(ATTRIBUTE) instanceof Map<?, ?> fields) {
+            ((Map<String, Object>) fields).put(key, value);
+        }
+    }
+
+    static Map<String, Object> start(HttpServletRequest request) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        request.setAttribute(ATTRIBUTE, fields);
+        return fields;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.task.utils;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Writes one INFO record per request: method, path, status, duration and whatever handlers added
+ * through {@link RequestSummary}. The fields are attached as SLF4J key/value pairs for structured
+ * encoders and repeated as {@code key=value} text for the plain console pattern.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestSummaryFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger("com.example.task.request");
+
+    @Value("${logging.request-summary.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !log.isInfoEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        Map<String, Object> fields = RequestSummary.start(request);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Streamed bodies finish after this thread returns; report them when the async request completes
+            if (request.isAsyncStarted()) {
+                // Tomcat can complete a request twice when its async dispatch fails, so write only once
+                AtomicBoolean written = new AtomicBoolean();
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        if (written.compareAndSet(false, true)) {
+                            write(request, response, fields, start);
+                        }
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        fields.put("timeout", true);
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        fields.put("error", String.valueOf(event.getThrowable()));
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                write(request, response, fields, start);
+            }
+        }
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response,
+                              Map<String, Object> fields, long start) {
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        LoggingEventBuilder event = log.atInfo()
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("status", response.getStatus())
+                .addKeyValue("durationMs", durationMs);
+        fields.forEach(event::addKeyValue);
+        String details = fields.entrySet().stream()
+                .map(entry -> " " + entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining());
+        event.log("{} {} {} {}ms{}", request.getMethod(), request.getRequestURI(), response.getStatus(), durationMs,
+                details);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.task.utils;
+
+import com.example.task.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a user's task change log: the id of the last change the client has
+ * applied. Whether the log still reaches back that far is decided from the id alone, since
+ * anything else in the token is the client's to change.
+ */
+public record SyncToken(long changeId) {
+
+    private static final String PREFIX = "s1:";
+
+    public String encode() {
+        byte[] raw = (PREFIX + changeId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new InvalidCursorException(token);
+            }
+            // Tokens issued before expiry was decided by the id also carry an issue time, which is ignored
+            String[] parts = raw.substring(PREFIX.length()).split(":", 2);
+            return new SyncToken(Long.parseLong(parts[0]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.task.utils;
+
+import com.example.task.services.ClusterBus;
+import com.example.task.services.RevocationStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Access tokens revoked before their expiry: single tokens by id (logout) and every token a
+ * user was issued up to a point in time (account deletion). An entry is only needed while a
+ * token it covers can still be valid, so everything expires after the access-token lifetime
+ * and the list stays as small as the number of revocations in that window.
+ * <p>
+ * The list is exact rather than probabilistic: a false positive would lock a user out until
+ * their next refresh, and a set this short-lived is already cheap to keep in memory.
+ * <p>
+ * Any instance may be asked to accept the token next, so every revocation is also written to the
+ * {@link RevocationStore} before it returns, inside the caller's transaction if there is one, and
+ * broadcast on the {@link ClusterBus} so other instances' lists catch it without a lookup. The
+ * in-memory entry and the broadcast wait for that transaction to commit. A token the list does not cover is checked
+ * against the store, which also answers for revocations made before this instance started or
+ * whose message it missed.
+ */
+@Component
+public class TokenRevocationList implements MeterBinder {
+
+    private static final String TOKENS_TOPIC = "jwt.revoked-tokens";
+    private static final String USERS_TOPIC = "jwt.revoked-users";
+
+    private final Cache<String, Boolean> revokedTokenIds;
+    private final Cache<String, Long> revokedUsersBefore;
+    private final Duration accessTokenTtl;
+    private final ClusterBus clusterBus;
+    private final RevocationStore store;
+
+    public TokenRevocationList(@Value("${jwt.access-token.ttl:15m}") Duration accessTokenTtl, ClusterBus clusterBus,
+                               RevocationStore store) {
+        this.revokedTokenIds = Caffeine.newBuilder().expireAfterWrite(accessTokenTtl).build();
+        this.revokedUsersBefore = Caffeine.newBuilder().expireAfterWrite(accessTokenTtl).build();
+        this.accessTokenTtl = accessTokenTtl;
+        this.clusterBus = clusterBus;
+        this.store = store;
+        clusterBus.subscribe(TOKENS_TOPIC, id -> revokedTokenIds.put(id, Boolean.TRUE));
+        clusterBus.subscribe(USERS_TOPIC, this::applyUserRevocation);
+    }
+
+    public void revoke(JwtClaims claims) {
+        if (claims.getId() != null) {
+            String tokenId = claims.getId();
+            store.revokeToken(tokenId, Instant.now().plus(accessTokenTtl));
+            AfterCommit.run(() -> {
+                revokedTokenIds.put(tokenId, Boolean.TRUE);
+                clusterBus.publish(TOKENS_TOPIC, tokenId);
+            });
+        }
+    }
+
+    public void revokeUser(String username) {
+        long revokedBefore = System.currentTimeMillis();
+        store.revokeUser(username, revokedBefore, Instant.ofEpochMilli(revokedBefore).plus(accessTokenTtl));
+        AfterCommit.run(() -> {
+            revokedUsersBefore.put(username, revokedBefore);
+            clusterBus.publish(USERS_TOPIC, revokedBefore + ":" + username);
+        });
+    }
+
+    public boolean isRevoked(JwtClaims claims) {
+        if (claims.getId() != null && revokedTokenIds.getIfPresent(claims.getId()) != null) {
+            return true;
+        }
+        // A token without an issue time cannot be placed before a user revocation
+        long issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : Long.MAX_VALUE;
+        Long revokedBefore = revokedUsersBefore.getIfPresent(claims.getSubject());
+        if (revokedBefore != null && issuedAt <= revokedBefore) {
+            return true;
+        }
+        return store.isRevoked(claims.getId(), claims.getSubject(), issuedAt);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jwt.revocations.size", this,
+                        list -> list.revokedTokenIds.estimatedSize() + list.revokedUsersBefore.estimatedSize())
+                .description("Access-token revocations still within the token lifetime")
+                .register(registry);
+    }
+
+    // "<revoked before millis>:<username>"; the originating instance's clock decides what is covered
+    private void applyUserRevocation(String payload) {
+        int separator = payload.indexOf(':');
+        revokedUsersBefore.asMap().merge(payload.substring(separator + 1),
+                Long.parseLong(payload.substring(0, separator)), Math::max);
+    }
+}
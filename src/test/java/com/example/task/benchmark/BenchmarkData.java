@@ -0,0 +1,60 @@
+package com.example.task.benchmark;
+
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.entity.Task;
+import com.example.task.entity.User;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("user" + id);
+        user.setUsername("user" + id);
+        user.setPassword("{noop}password");
+        return user;
+    }
+
+    static Task task(long id, User user) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setDescription("Description of task " + id + " with a few more words in it");
+        task.setDate(new Date(1_700_000_000_000L + id * 86_400_000L));
+        task.setCompleted(id % 3 == 0);
+        task.setUser(user);
+        return task;
+    }
+
+    static List<Task> tasks(int count, User user) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            tasks.add(task(i, user));
+        }
+        return tasks;
+    }
+
+    static List<TaskResponseDTO> taskDTOs(int count) {
+        List<TaskResponseDTO> dtos = new ArrayList<>(count);
+        User user = user(1L);
+        for (long i = 1; i <= count; i++) {
+            Task task = task(i, user);
+            TaskResponseDTO dto = new TaskResponseDTO();
+            dto.setId(task.getId());
+            dto.setTitle(task.getTitle());
+            dto.setDescription(task.getDescription());
+            dto.setCompleted(task.isCompleted());
+            dto.setDate(task.getDate());
+            dto.setUserId(user.getId());
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+}
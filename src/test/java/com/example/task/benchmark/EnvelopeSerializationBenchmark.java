@@ -0,0 +1,76 @@
+package com.example.task.benchmark;
+
+import com.example.task.dto.ApiResponse;
+import com.example.task.dto.ResponseShell;
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.dto.UserResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response envelopes built by TaskController and UserController.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvelopeSerializationBenchmark {
+
+    private static final ResponseShell TASKS_LISTED = ResponseShell.of("Success", "", 200, "task");
+    private static final ResponseShell USER_FOUND = ResponseShell.of("Success", "User found", 200, "user");
+
+    @Param({"1", "100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<TaskResponseDTO> tasks;
+    private UserResponseDTO user;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        tasks = BenchmarkData.taskDTOs(size);
+        user = new UserResponseDTO();
+        user.setId(1L);
+        user.setName("alice");
+        user.setTasksCount(size);
+    }
+
+    @Benchmark
+    public byte[] taskListMapEnvelope() throws Exception {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", "Success");
+        body.put("message", "");
+        body.put("code", 200);
+        body.put("task", tasks);
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] userMapEnvelope() throws Exception {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", "Success");
+        body.put("message", "User found");
+        body.put("code", 200);
+        body.put("user", user);
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] taskListTypedEnvelope() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.of(TASKS_LISTED, tasks));
+    }
+
+    @Benchmark
+    public byte[] userTypedEnvelope() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.of(USER_FOUND, user));
+    }
+}
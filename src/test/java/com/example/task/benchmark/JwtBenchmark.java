@@ -0,0 +1,75 @@
+package com.example.task.benchmark;
+
+import com.example.task.utils.JwtClaims;
+import com.example.task.utils.JwtUtil;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and verification cost. {@code legacyThreeParses} keeps the former
+ * three-parse path of JwtFilter around as a baseline for {@link JwtUtil#parse(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    static final String SECRET = "sdn3n3NcW0JhYXkJqlckxZsxh0T3EQfnXL49CzhAdzU=";
+    private static final List<SimpleGrantedAuthority> ROLES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil();
+        token = jwtUtil.generateToken(1L, "alice", ROLES);
+    }
+
+    static JwtUtil newJwtUtil() {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "accessTokenTtl", Duration.ofMinutes(15));
+        ReflectionTestUtils.invokeMethod(util, "init");
+        return util;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(1L, "alice", ROLES);
+    }
+
+    @Benchmark
+    public boolean legacyThreeParses() {
+        // extractUsername, validateToken (which parses again) and isTokenExpired, each rebuilding key and parser
+        String username = legacyParser().parseClaimsJws(token).getBody().getSubject();
+        boolean sameUser = legacyParser().parseClaimsJws(token).getBody().getSubject().equals(username);
+        Date expiration = legacyParser().parseClaimsJws(token).getBody().getExpiration();
+        return sameUser && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public boolean singlePass() {
+        JwtClaims claims = jwtUtil.parse(token);
+        return claims.getSubject() != null && !claims.isExpired();
+    }
+
+    private static JwtParser legacyParser() {
+        Key key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build();
+    }
+}
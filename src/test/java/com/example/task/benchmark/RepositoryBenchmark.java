@@ -0,0 +1,95 @@
+package com.example.task.benchmark;
+
+import com.example.task.TaskApplication;
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.entity.Task;
+import com.example.task.entity.User;
+import com.example.task.repository.TaskFilter;
+import com.example.task.repository.TaskRepository;
+import com.example.task.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository round-trips against an embedded H2 database in MySQL mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({"1000"})
+    public int tasksPerUser;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private UserRepository userRepository;
+    private Long userId;
+    private Long taskId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TaskApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments take precedence over the env placeholders in application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--jwt.secret=" + JwtBenchmark.SECRET,
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.task=WARN");
+        taskRepository = context.getBean(TaskRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+
+        User user = BenchmarkData.user(0L);
+        user.setId(null);
+        user = userRepository.save(user);
+        userId = user.getId();
+
+        List<Task> tasks = BenchmarkData.tasks(tasksPerUser, user);
+        tasks.forEach(task -> task.setId(null));
+        taskId = taskRepository.saveAll(tasks).get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> findUserByUsername() {
+        return userRepository.findByUsername("user0");
+    }
+
+    @Benchmark
+    public Optional<Task> findTaskById() {
+        return taskRepository.findById(taskId);
+    }
+
+    @Benchmark
+    public Optional<TaskResponseDTO> findTaskViewById() {
+        return taskRepository.findOwnedViewById(taskId, userId);
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> findAllTasksOfUser() {
+        return taskRepository.findViews(TaskFilter.forUser(userId));
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> findFirstPageOfUser() {
+        return taskRepository.findViewPage(TaskFilter.forUser(userId), 0L, 100);
+    }
+}
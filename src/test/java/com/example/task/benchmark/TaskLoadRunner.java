@@ -0,0 +1,233 @@
+package com.example.task.benchmark;
+
+import com.example.task.TaskApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop HTTP load against the TaskController endpoints, comparing throughput and tail
+ * latency between the platform-thread and virtual-thread execution modes.
+ * <p>
+ * By default each mode boots its own instance on an embedded H2 database. Set {@code load.url}
+ * to drive an already running instance instead (e.g. the docker-compose stack on MySQL, started
+ * once with {@code TASK_VIRTUAL_THREADS=false} and once with {@code true}); pass {@code load.user-id}
+ * when the load user is not the first one registered there.
+ * <pre>
+ * mvn -B -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.task.benchmark.TaskLoadRunner -Dload.concurrency=400
+ * </pre>
+ */
+public class TaskLoadRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final int concurrency = Integer.getInteger("load.concurrency", 256);
+    private final int requests = Integer.getInteger("load.requests", 20_000);
+    private final int warmupRequests = Integer.getInteger("load.warmup", 2_000);
+    private final int seedTasks = Integer.getInteger("load.tasks", 500);
+
+    public static void main(String[] args) throws Exception {
+        TaskLoadRunner runner = new TaskLoadRunner();
+        String url = System.getProperty("load.url");
+        if (url != null) {
+            runner.run(System.getProperty("load.label", "external"), url).print();
+            return;
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : System.getProperty("load.modes", "platform,virtual").split(",")) {
+            boolean virtual = mode.equals("virtual");
+            if (virtual && Runtime.version().feature() < 21) {
+                System.out.printf("Skipping virtual mode: the runtime is Java %d, virtual threads need 21+%n",
+                        Runtime.version().feature());
+                continue;
+            }
+            try (ConfigurableApplicationContext context = boot(mode, virtual)) {
+                String port = context.getEnvironment().getProperty("local.server.port");
+                results.add(runner.run(mode, "http://localhost:" + port));
+            }
+        }
+        results.forEach(Result::print);
+    }
+
+    private static ConfigurableApplicationContext boot(String mode, boolean virtual) {
+        return new SpringApplicationBuilder(TaskApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--jwt.secret=" + JwtBenchmark.SECRET,
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.task=WARN");
+    }
+
+    private Result run(String label, String baseUrl) throws Exception {
+        Session session = seed(baseUrl);
+        drive(session, warmupRequests);
+        return drive(session, requests).labelled(label);
+    }
+
+    // Registering again is harmless when the user already exists on an external instance
+    private Session seed(String baseUrl) throws Exception {
+        String credentials = MAPPER.writeValueAsString(
+                new Credentials(System.getProperty("load.username", "load-user"), "load-password"));
+        send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/register")), "POST", credentials, null);
+        String token = MAPPER.readTree(send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login")),
+                "POST", credentials, null)).get("token").asText();
+
+        // A fresh embedded database gives the first registered user id 1
+        long userId = Long.getLong("load.user-id", 1L);
+        Session probe = new Session(baseUrl, token, userId, new long[0]);
+
+        List<String> batch = new ArrayList<>();
+        for (int i = 0; i < seedTasks; i++) {
+            batch.add(taskJson(i));
+        }
+        if (!batch.isEmpty()) {
+            send(probe.request("/api/tasks/bulk"), "POST", "[" + String.join(",", batch) + "]", null);
+        }
+
+        long[] taskIds = MAPPER.readTree(send(probe.request("/api/tasks/all/" + userId), "GET", null, null))
+                .path("task").findValues("id").stream().mapToLong(JsonNode::asLong).toArray();
+        if (taskIds.length == 0) {
+            throw new IllegalStateException("No tasks could be seeded for user " + userId + " at " + baseUrl);
+        }
+        return new Session(baseUrl, token, userId, taskIds);
+    }
+
+    private Result drive(Session session, int total) throws Exception {
+        AtomicInteger remaining = new AtomicInteger(total);
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> {
+                long[] latencies = new long[total / concurrency + 1];
+                int recorded = 0;
+                while (remaining.getAndDecrement() > 0) {
+                    long begin = System.nanoTime();
+                    if (!session.call(client)) {
+                        errors.incrementAndGet();
+                    }
+                    if (recorded == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, recorded * 2);
+                    }
+                    latencies[recorded++] = System.nanoTime() - begin;
+                }
+                return Arrays.copyOf(latencies, recorded);
+            }));
+        }
+        long[] all = new long[0];
+        try {
+            for (Future<long[]> future : futures) {
+                long[] part = future.get();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + part.length);
+                System.arraycopy(part, 0, all, offset, part.length);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - started;
+        Arrays.sort(all);
+        return new Result(null, all, elapsed, errors.get());
+    }
+
+    private String send(HttpRequest.Builder builder, String method, String body, String token) throws Exception {
+        builder.header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static String taskJson(int i) {
+        return "{\"title\":\"Load task " + i + "\",\"description\":\"Generated by TaskLoadRunner\","
+                + "\"date\":\"2026-01-" + String.format("%02d", i % 28 + 1) + "\",\"completed\":" + (i % 3 == 0) + "}";
+    }
+
+    private record Credentials(String username, String password) {
+    }
+
+    /**
+     * One authenticated user with seeded tasks; each call picks an endpoint with a read-heavy mix.
+     */
+    private record Session(String baseUrl, String token, long userId, long[] taskIds) {
+
+        HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", "Bearer " + token);
+        }
+
+        boolean call(HttpClient client) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int pick = random.nextInt(100);
+            HttpRequest request;
+            if (pick < 50) {
+                request = request("/api/tasks/" + taskIds[random.nextInt(taskIds.length)]).GET().build();
+            } else if (pick < 75) {
+                request = request("/api/tasks/all/" + userId + "?limit=50").GET().build();
+            } else if (pick < 90) {
+                request = request("/api/tasks/filter?userId=" + userId + "&completed=false&limit=50").GET().build();
+            } else {
+                request = request("/api/tasks/" + userId)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(taskJson(random.nextInt(1000))))
+                        .build();
+            }
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                return status < 400;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+
+    private record Result(String label, long[] sortedNanos, long elapsedNanos, int errors) {
+
+        Result labelled(String label) {
+            return new Result(label, sortedNanos, elapsedNanos, errors);
+        }
+
+        void print() {
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("%-10s %8d req  %9.1f req/s  p50 %7.2f ms  p99 %7.2f ms  p99.9 %7.2f ms  max %7.2f ms  errors %d%n",
+                    label, sortedNanos.length, sortedNanos.length / seconds,
+                    percentile(0.50), percentile(0.99), percentile(0.999),
+                    sortedNanos.length == 0 ? 0 : sortedNanos[sortedNanos.length - 1] / 1e6, errors);
+        }
+
+        private double percentile(double p) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            return sortedNanos[Math.min(sortedNanos.length - 1, (int) Math.ceil(p * sortedNanos.length) - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.task.benchmark;
+
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.entity.Task;
+import com.example.task.services.TaskMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of TaskMapper's entity to DTO mapping over large task lists. Listings
+ * now project straight into DTOs in the query, but the write paths still map entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMappingBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        tasks = BenchmarkData.tasks(size, BenchmarkData.user(1L));
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> toDTO() {
+        List<TaskResponseDTO> dtos = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            dtos.add(TaskMapper.toDTO(task));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.task.config;
+
+import com.example.task.utils.PrimaryReads;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes over two local H2 databases standing in for a primary and its replica.
+ */
+public class ReplicaDataSourceTest {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToAHealthyReplica() throws SQLException {
+        ReplicaDataSource replicas = replicas(null);
+        DataSource routing = routing(replicas);
+
+        assertEquals("PRIMARY", database(routing, true), "Replicas are unused until they pass a check");
+        replicas.checkReplicas();
+        assertEquals("REPLICA", database(routing, true));
+        assertEquals("PRIMARY", database(routing, false));
+        assertEquals("PRIMARY", PrimaryReads.call(() -> database(routing, true)));
+    }
+
+    @Test
+    void testWriterReadsFromThePrimaryWithinTheStickyWindow() throws SQLException {
+        ReplicaDataSource replicas = replicas(null);
+        DataSource routing = routing(replicas);
+        replicas.checkReplicas();
+
+        authenticate("alice");
+        database(routing, false);
+        assertEquals("PRIMARY", database(routing, true));
+
+        authenticate("bob");
+        assertEquals("REPLICA", database(routing, true));
+    }
+
+    @Test
+    void testLaggingReplicaIsTakenOutOfRouting() throws SQLException {
+        ReplicaDataSource lagging = replicas("SELECT 60");
+        lagging.checkReplicas();
+        assertEquals("PRIMARY", database(routing(lagging), true));
+        assertFalse(lagging.describe().isEmpty());
+
+        ReplicaDataSource current = replicas("SELECT 0");
+        current.checkReplicas();
+        assertEquals("REPLICA", database(routing(current), true));
+    }
+
+    private ReplicaDataSource replicas(String lagQuery) {
+        return new ReplicaDataSource(pool("primary"), List.of(pool("replica")),
+                Duration.ofSeconds(5), Duration.ofSeconds(5), lagQuery);
+    }
+
+    private static DataSource routing(ReplicaDataSource replicas) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(replicas.writes());
+        routing.setReadOnlyDataSource(replicas);
+        return routing;
+    }
+
+    private HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setPoolName(name);
+        pools.add(pool);
+        return pool;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    // Marks the connection the way @Transactional(readOnly = true) does, then asks which database answered
+    private static String database(DataSource routing, boolean readOnly) {
+        try (Connection connection = routing.getConnection()) {
+            connection.setReadOnly(readOnly);
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT DATABASE()")) {
+                rs.next();
+                return rs.getString(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.task.config;
+
+import com.example.task.entity.User;
+import com.example.task.repository.UserRepository;
+import com.example.task.utils.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routing through JPA and a whole request, on two H2 databases standing in for a primary and its
+ * replica. The replica starts as a copy of the primary, so every statement succeeds on either
+ * and only the row contents show which database a write went to.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "tasks.datasource.replica-urls=" + ReplicaRoutingJpaTest.REPLICA_URL,
+        "tasks.datasource.replica-lag-query="
+})
+public class ReplicaRoutingJpaTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void testWriteAfterReadOnlyLookupInOneRequestGoesToThePrimary() throws Exception {
+        User user = new User();
+        user.setName("before");
+        user.setUsername("routing-" + System.nanoTime());
+        user.setPassword("hash");
+        user = userRepository.save(user);
+        copyPrimaryToReplica();
+        replicaDataSource.checkReplicas();
+        entityManagerFactory.getCache().evictAll();
+
+        // updateUser looks the user up, then saves it
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(),
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        mockMvc.perform(put("/api/users/update")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + user.getId() + ",\"name\":\"after\",\"tasks\":[]}"))
+                .andExpect(status().isCreated());
+
+        try (Connection primary = dataSource.unwrap(DataSource.class).getConnection();
+             Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+            assertEquals("after", name(primary, user.getId()));
+            assertEquals("before", name(replica, user.getId()), "The write must not reach the replica");
+        }
+    }
+
+    private void copyPrimaryToReplica() throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection primary = DriverManager.getConnection("jdbc:h2:mem:routing-primary", "sa", "");
+             Statement statement = primary.createStatement();
+             ResultSet rs = statement.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS")) {
+            while (rs.next()) {
+                script.add(rs.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                if (!sql.startsWith("CREATE USER")) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private static String name(Connection connection, Long userId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT name FROM users_table WHERE id = ?")) {
+            statement.setLong(1, userId);
+            try (ResultSet rs = statement.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.task.config;
+
+import com.example.task.entity.Task;
+import com.example.task.entity.User;
+import com.example.task.repository.TaskRepository;
+import com.example.task.repository.UserRepository;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A database upgraded from identity ids: rows are already in {@code notes_table} while the sequence
+ * is still at its initial value. Runs on Hibernate's MySQL dialect, so the sequence is the one-row
+ * table production gets. Not transactional: the rows have to be committed before seeding.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TaskIdSequenceInitializer.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sequence;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"
+})
+public class TaskIdSequenceInitializerTest {
+
+    @Autowired
+    private TaskIdSequenceInitializer initializer;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void testNewTasksTakeIdsAboveExistingRows() throws Exception {
+        User user = new User();
+        user.setName("Upgraded");
+        user.setUsername("upgraded-" + System.nanoTime());
+        user.setPassword("hash");
+        user = userRepository.save(user);
+        // Rows written before the upgrade, as identity ids left them
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO notes_table (id, title, description, date, completed, version, user_id) VALUES (?, ?, ?, CURRENT_DATE, false, 0, ?)")) {
+            for (long id = 1; id <= 120; id++) {
+                statement.setLong(1, id);
+                statement.setString(2, "Existing " + id);
+                statement.setString(3, "Before the upgrade");
+                statement.setLong(4, user.getId());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+
+        initializer.seed();
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Task task = new Task();
+            task.setTitle("New " + i);
+            task.setDescription("After the upgrade");
+            task.setDate(new Date());
+            task.setUser(user);
+            tasks.add(task);
+        }
+        List<Task> saved = taskRepository.saveAll(tasks);
+
+        assertTrue(saved.stream().allMatch(task -> task.getId() > 120), "New ids must not collide with existing rows");
+        assertEquals(123, taskRepository.count());
+
+        // Seeding again leaves a sequence that is already ahead where it is
+        initializer.seed();
+        Task next = new Task();
+        next.setTitle("Later");
+        next.setDescription("After a restart");
+        next.setDate(new Date());
+        next.setUser(user);
+        assertTrue(taskRepository.save(next).getId() > saved.get(saved.size() - 1).getId());
+    }
+
+    @Test
+    void testSchemaWithoutTheTablesIsLeftAlone() {
+        // ddl-auto=none before the schema exists
+        DataSource empty = new DriverManagerDataSource("jdbc:h2:mem:sequence-empty;DB_CLOSE_DELAY=-1", "sa", "");
+
+        assertDoesNotThrow(() -> initializer.seed(empty, new MySQLDialect().getSequenceSupport()));
+        assertDoesNotThrow(() -> initializer.seed(empty, new H2Dialect().getSequenceSupport()));
+    }
+
+    @Test
+    void testNativeSequenceIsOnlyEverRaised() throws Exception {
+        DataSource database = new DriverManagerDataSource("jdbc:h2:mem:sequence-native;DB_CLOSE_DELAY=-1", "sa", "");
+        SequenceSupport sequences = new H2Dialect().getSequenceSupport();
+        try (Connection connection = database.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE notes_table (id BIGINT PRIMARY KEY)");
+            statement.execute("INSERT INTO notes_table SELECT x FROM SYSTEM_RANGE(1, 120)");
+            statement.execute("CREATE SEQUENCE notes_seq START WITH 1 INCREMENT BY 50");
+        }
+
+        initializer.seed(database, sequences);
+        // The pooled optimizer hands out the block of 50 ids up to the value it reads
+        long raised = nextValue(database);
+        assertTrue(raised - Task.ID_ALLOCATION_SIZE >= 120, "Block ending at " + raised + " overlaps existing ids");
+
+        try (Connection connection = database.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE notes_seq RESTART WITH 100000");
+        }
+        initializer.seed(database, sequences);
+        assertTrue(nextValue(database) > 100000, "A sequence already ahead must not be moved back");
+    }
+
+    private static long nextValue(DataSource database) throws Exception {
+        try (Connection connection = database.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT NEXT VALUE FOR notes_seq")) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+}
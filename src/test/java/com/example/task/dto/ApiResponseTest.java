@@ -0,0 +1,57 @@
+package com.example.task.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiResponseTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testSerializesToSameShapeAsMapEnvelope() throws Exception {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setId(7L);
+        task.setTitle("Task");
+        task.setUserId(1L);
+
+        Map<String, Object> legacy = new HashMap<>();
+        legacy.put("status", "Success");
+        legacy.put("message", "Task found");
+        legacy.put("code", 200);
+        legacy.put("task", List.of(task));
+
+        ApiResponse<List<TaskResponseDTO>> typed =
+                ApiResponse.of(ResponseShell.of("Success", "Task found", 200, "task"), List.of(task));
+
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(legacy)),
+                objectMapper.readTree(objectMapper.writeValueAsString(typed)));
+    }
+
+    @Test
+    void testEmptyPayloadIsWrittenAsNull() throws Exception {
+        ApiResponse<Void> typed = ApiResponse.empty(ResponseShell.of("error", "User not found", 404, "user"));
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(typed));
+        assertTrue(json.get("user").isNull());
+        assertEquals(404, json.get("code").asInt());
+        assertFalse(json.has("nextCursor"));
+    }
+
+    @Test
+    void testPagedResponseAlwaysCarriesCursor() throws Exception {
+        ApiResponse<List<TaskResponseDTO>> lastPage =
+                ApiResponse.of(ResponseShell.of("Success", "", 200, "task"), List.<TaskResponseDTO>of())
+                        .withNextCursor(null);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(lastPage));
+        assertTrue(json.has("nextCursor"));
+        assertTrue(json.get("nextCursor").isNull());
+    }
+}
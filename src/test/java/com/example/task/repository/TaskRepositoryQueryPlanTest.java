@@ -0,0 +1,155 @@
+package com.example.task.repository;
+
+import com.example.task.dto.TaskDayCountDTO;
+import com.example.task.entity.Task;
+import com.example.task.entity.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the task listing queries against regressing to full table scans: every
+ * filter combination is executed, the SQL Hibernate generated is captured and its
+ * EXPLAIN plan on H2 (MySQL mode) must go through one of the notes_table indexes.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.task.repository.TaskRepositoryQueryPlanTest$CapturingInspector"
+})
+public class TaskRepositoryQueryPlanTest {
+
+    private static final Pattern INDEX_SEEK_ON_USER = Pattern.compile("/\\* PUBLIC\\.\\w+:[^*]*USER_ID = ");
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private final Date day = new Date(1_700_000_000_000L);
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("plan");
+        // ANALYZE commits on H2, so rows outlive each test's rollback
+        user.setUsername("plan-" + UUID.randomUUID());
+        user.setPassword("x");
+        userId = userRepository.save(user).getId();
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setDescription("Description " + i);
+            task.setDate(new Date(day.getTime() + (i % 20) * 86_400_000L));
+            task.setCompleted(i % 2 == 0);
+            task.setUser(user);
+            tasks.add(task);
+        }
+        taskRepository.saveAllAndFlush(tasks);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void testEveryFilterCombinationUsesAnIndex() {
+        List<TaskFilter> filters = List.of(
+                TaskFilter.forUser(userId),
+                TaskFilter.of(userId, day, null),
+                TaskFilter.of(userId, null, true),
+                TaskFilter.of(userId, day, false),
+                TaskFilter.forUser(userId).between(firstDay(), firstDay().plusDays(6)),
+                TaskFilter.of(userId, null, true).between(firstDay(), null));
+
+        for (TaskFilter filter : filters) {
+            assertIndexed(() -> taskRepository.findViews(filter));
+            assertIndexed(() -> taskRepository.findViewPage(filter, 10L, 50));
+        }
+    }
+
+    @Test
+    void testCalendarCountsComeFromOneIndexedGroupedQuery() {
+        TaskFilter range = TaskFilter.forUser(userId).between(firstDay(), firstDay().plusDays(4));
+        List<TaskDayCountDTO> days = taskRepository.countByDay(userId, range.getFrom(), range.getUntil());
+
+        assertEquals(5, days.size());
+        assertEquals(firstDay(), days.get(0).getDate());
+        // Tasks on even day offsets are completed, ten tasks per day
+        assertEquals(10, days.get(0).getCompleted());
+        assertEquals(0, days.get(0).getPending());
+        assertEquals(10, days.get(1).getPending());
+
+        assertIndexed(() -> taskRepository.countByDay(userId, range.getFrom(), range.getUntil()));
+    }
+
+    private LocalDate firstDay() {
+        return day.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private void assertIndexed(Runnable query) {
+        CapturingInspector.SQL.clear();
+        query.run();
+        String sql = CapturingInspector.SQL.stream()
+                .filter(s -> s.contains("notes_table"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+
+        String plan = explain(sql);
+        assertFalse(plan.contains("tableScan"), "Full scan for: " + sql + "\n" + plan);
+        // H2 prints the chosen index and its seek condition, e.g. /* PUBLIC.IDX_NOTES_USER_ID: USER_ID = ?1 */
+        assertTrue(INDEX_SEEK_ON_USER.matcher(plan).find(), "No index seek on user_id for: " + sql + "\n" + plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql)) {
+                int params = ps.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= params; i++) {
+                    ps.setObject(i, null);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> SQL = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
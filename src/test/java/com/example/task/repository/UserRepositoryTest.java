@@ -0,0 +1,111 @@
+package com.example.task.repository;
+
+import com.example.task.entity.Task;
+import com.example.task.entity.User;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:users;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+public class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testAdjustTasksCount() {
+        User user = userRepository.saveAndFlush(newUser("counter"));
+
+        assertEquals(1, userRepository.adjustTasksCount(user.getId(), 1));
+        assertEquals(1, userRepository.adjustTasksCount(user.getId(), 1));
+        assertEquals(1, userRepository.adjustTasksCount(user.getId(), -1));
+        assertEquals(0, userRepository.adjustTasksCount(-1L, 1));
+
+        entityManager.clear();
+        assertEquals(1, userRepository.findById(user.getId()).orElseThrow().getTasksCount());
+    }
+
+    // Runs outside the test transaction: the second-level cache is only populated on commit
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testAdjustTasksCountEvictsOnlyThatUser() {
+        User counted = userRepository.save(newUser("counted"));
+        User other = userRepository.save(newUser("other"));
+        try {
+            userRepository.findById(counted.getId());
+            userRepository.findById(other.getId());
+
+            Cache cache = entityManager.getEntityManagerFactory().getCache();
+            assertTrue(cache.contains(User.class, counted.getId()));
+
+            new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> userRepository.adjustTasksCount(counted.getId(), 1));
+
+            assertFalse(cache.contains(User.class, counted.getId()));
+            assertTrue(cache.contains(User.class, other.getId()));
+            assertEquals(1, userRepository.findById(counted.getId()).orElseThrow().getTasksCount());
+        } finally {
+            userRepository.deleteAllById(List.of(counted.getId(), other.getId()));
+        }
+    }
+
+    @Test
+    void testReconcileTasksCounts() {
+        User drifted = newUser("drifted");
+        drifted.setTasksCount(5);
+        drifted = userRepository.save(drifted);
+        User consistent = userRepository.save(newUser("consistent"));
+
+        Task task = new Task();
+        task.setTitle("Only task");
+        task.setDescription("Description");
+        task.setDate(new Date());
+        task.setUser(drifted);
+        taskRepository.saveAndFlush(task);
+
+        assertEquals(1, userRepository.reconcileTasksCounts());
+
+        entityManager.clear();
+        assertEquals(1, userRepository.findById(drifted.getId()).orElseThrow().getTasksCount());
+        assertEquals(0, userRepository.findById(consistent.getId()).orElseThrow().getTasksCount());
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setName(username);
+        user.setUsername(username);
+        user.setPassword("x");
+        return user;
+    }
+}
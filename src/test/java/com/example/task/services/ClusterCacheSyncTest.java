@@ -0,0 +1,117 @@
+package com.example.task.services;
+
+import com.example.task.config.HibernateCacheConfig;
+import com.example.task.dto.TaskEventDTO;
+import com.example.task.entity.Task;
+import com.example.task.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two instances joined on one {@link LocalClusterBus.Network}, each with its own mocked caches.
+ */
+public class ClusterCacheSyncTest {
+
+    private final LocalClusterBus.Network network = new LocalClusterBus.Network();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Instance here;
+    private Instance there;
+
+    @BeforeEach
+    void setUp() {
+        here = new Instance();
+        there = new Instance();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testTaskEventEvictsAndRepublishesWithoutForwardingBack() {
+        TaskEventDTO event = TaskEventDTO.deleted(10L, 1L);
+
+        here.sync.onTaskEvent(event);
+
+        verify(there.cache).evict(Task.class, 10L);
+        verify(there.cache).evict(User.class, 1L);
+        verify(there.eventPublisher).publishEvent(event);
+        // The republished event reached the other instance's own listener, which must not send it on
+        verify(here.eventPublisher, never()).publishEvent(any());
+        verify(here.cache, never()).evict(any(Class.class), any());
+    }
+
+    @Test
+    void testUserChangeIsSentOnlyOnceTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        here.sync.userChanged(1L);
+        verifyNoInteractions(there.cache, there.taskListingCache);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(there.cache).evictQueryRegion(HibernateCacheConfig.USERS_BY_USERNAME_REGION);
+        verify(there.cache).evict(User.class, 1L);
+        verify(there.taskListingCache).invalidate(1L);
+    }
+
+    @Test
+    void testUserChangeRolledBackIsNeverSent() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        here.sync.userChanged(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(there.cache, there.taskListingCache);
+    }
+
+    @Test
+    void testUsersChangedEvictsEveryUser() {
+        here.sync.usersChanged();
+
+        verify(there.cache).evictQueryRegion(HibernateCacheConfig.USERS_BY_USERNAME_REGION);
+        verify(there.cache).evict(User.class);
+        verify(there.taskListingCache, never()).invalidate(anyLong());
+    }
+
+    private final class Instance {
+        private final Cache cache = mock(Cache.class);
+        private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        private final TaskListingCache taskListingCache = mock(TaskListingCache.class);
+        private final ClusterCacheSync sync = new ClusterCacheSync();
+
+        private Instance() {
+            jakarta.persistence.Cache jpaCache = mock(jakarta.persistence.Cache.class);
+            when(jpaCache.unwrap(Cache.class)).thenReturn(cache);
+            EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+            when(entityManagerFactory.getCache()).thenReturn(jpaCache);
+            // Republished events reach this instance's own listener, as they would in the context
+            doAnswer(invocation -> {
+                sync.onTaskEvent(invocation.getArgument(0));
+                return null;
+            }).when(eventPublisher).publishEvent(any(Object.class));
+
+            ReflectionTestUtils.setField(sync, "clusterBus", new LocalClusterBus(network));
+            ReflectionTestUtils.setField(sync, "eventPublisher", eventPublisher);
+            ReflectionTestUtils.setField(sync, "entityManagerFactory", entityManagerFactory);
+            ReflectionTestUtils.setField(sync, "taskListingCache", taskListingCache);
+            ReflectionTestUtils.setField(sync, "objectMapper", objectMapper);
+            sync.subscribe();
+        }
+    }
+}
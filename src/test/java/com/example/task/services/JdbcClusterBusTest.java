@@ -0,0 +1,123 @@
+package com.example.task.services;
+
+import com.example.task.repository.ClusterMessageRepository;
+import com.example.task.repository.JobLockRepository;
+import com.example.task.repository.RateLimitCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two instances sharing one H2 database. Not transactional: publishing commits on its own, as
+ * it does after a request's transaction.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cluster;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+public class JdbcClusterBusTest {
+
+    @Autowired
+    private ClusterMessageRepository messageRepository;
+
+    @Autowired
+    private RateLimitCounterRepository counterRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testMessagesReachOtherInstancesOnly() {
+        JdbcClusterBus here = bus();
+        JdbcClusterBus there = bus();
+        List<String> receivedHere = new ArrayList<>();
+        List<String> receivedThere = new ArrayList<>();
+        here.subscribe("topic", receivedHere::add);
+        there.subscribe("topic", receivedThere::add);
+        // The first poll only finds the starting position
+        here.poll();
+        there.poll();
+
+        here.publish("topic", "a");
+        here.publish("other", "b");
+        here.publish("topic", "c");
+        here.poll();
+        there.poll();
+
+        assertEquals(List.of(), receivedHere);
+        assertEquals(List.of("a", "c"), receivedThere);
+
+        there.poll();
+        assertEquals(List.of("a", "c"), receivedThere, "Messages are delivered once");
+    }
+
+    @Test
+    void testCountersAreSharedAndRestartEachWindow() {
+        JdbcRateLimitCounters here = counters();
+        JdbcRateLimitCounters there = counters();
+        Duration window = Duration.ofHours(1);
+
+        assertEquals(1, here.increment("login:user:alice", window));
+        assertEquals(2, there.increment("login:user:alice", window));
+        assertEquals(1, there.increment("login:user:bob", window));
+
+        // A one-millisecond window has always moved on by the next call
+        assertEquals(1, here.increment("login:user:carol", Duration.ofMillis(1)));
+        sleep();
+        assertEquals(1, here.increment("login:user:carol", Duration.ofMillis(1)));
+    }
+
+    @Test
+    void testAJobRunsOnOneInstanceUntilItsLeaseRunsOut() {
+        JdbcJobLocks here = new JdbcJobLocks(jobLockRepository, transactionManager);
+        JdbcJobLocks there = new JdbcJobLocks(jobLockRepository, transactionManager);
+
+        assertTrue(here.tryLock("purge", Duration.ofMinutes(10)));
+        assertFalse(there.tryLock("purge", Duration.ofMinutes(10)));
+        assertFalse(here.tryLock("purge", Duration.ofMinutes(10)), "The lease is not released early");
+        assertTrue(there.tryLock("reconcile", Duration.ofMillis(1)), "Jobs are locked independently");
+
+        sleep();
+        assertTrue(here.tryLock("reconcile", Duration.ofMinutes(10)));
+        assertFalse(there.tryLock("reconcile", Duration.ofMinutes(10)));
+    }
+
+    private JdbcRateLimitCounters counters() {
+        return new JdbcRateLimitCounters(counterRepository, transactionManager, Duration.ofHours(1), new LocalJobLocks(),
+                Duration.ofMinutes(10));
+    }
+
+    private JdbcClusterBus bus() {
+        return new JdbcClusterBus(messageRepository, transactionManager, 2, Duration.ofMinutes(10), new LocalJobLocks(),
+                Duration.ofMinutes(10));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.task.services;
+
+import com.example.task.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingServiceTest {
+
+    @Test
+    void testRejectsWorkOnceQueueIsFull() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingService service = new PasswordHashingService(1, 1, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> busy = service.submit(() -> {
+                running.countDown();
+                awaitQuietly(release);
+                return "first";
+            });
+            running.await();
+            CompletableFuture<String> queued = service.submit(() -> "second");
+
+            assertThrows(HashingCapacityExceededException.class, () -> service.submit(() -> "third"));
+            assertEquals(1, registry.get("auth.hashing.rejected").counter().count());
+
+            release.countDown();
+            assertEquals("first", busy.get());
+            assertEquals("second", queued.get());
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
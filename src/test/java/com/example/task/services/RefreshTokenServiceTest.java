@@ -0,0 +1,71 @@
+package com.example.task.services;
+
+import com.example.task.entity.RefreshToken;
+import com.example.task.exception.InvalidRefreshTokenException;
+import com.example.task.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenTtl", Duration.ofDays(14));
+    }
+
+    @Test
+    void testRotateReplacesTokenInSameFamily() {
+        RefreshToken current = token(false);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("presented");
+
+        assertEquals(7L, rotation.userId());
+        assertNotEquals("presented", rotation.refreshToken());
+        assertTrue(current.isUsed());
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals("family-1", saved.getValue().getFamilyId());
+        assertNotEquals(current.getTokenHash(), saved.getValue().getTokenHash());
+    }
+
+    @Test
+    void testReusedTokenRevokesFamily() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(token(true)));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("presented"));
+        verify(refreshTokenRepository).revokeFamily("family-1");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    private static RefreshToken token(boolean used) {
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash("hash");
+        token.setFamilyId("family-1");
+        token.setUserId(7L);
+        token.setExpiresAt(Instant.now().plus(Duration.ofDays(1)));
+        token.setUsed(used);
+        return token;
+    }
+}
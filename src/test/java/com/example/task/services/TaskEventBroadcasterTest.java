@@ -0,0 +1,177 @@
+package com.example.task.services;
+
+import com.example.task.dto.TaskEventDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the senders by hand, so each test decides exactly when a stream is drained.
+ */
+public class TaskEventBroadcasterTest {
+
+    private final Queue<Runnable> senders = new ArrayDeque<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private TaskEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new TaskEventBroadcaster(senders::add, registry) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(broadcaster, "queueCapacity", 3);
+        ReflectionTestUtils.setField(broadcaster, "maxPerUser", 2);
+    }
+
+    @Test
+    void testEventsReachOnlyTheOwnersStreamsInOrder() {
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(2L);
+
+        broadcaster.onTaskEvent(TaskEventDTO.deleted(10L, 1L));
+        broadcaster.onTaskEvent(TaskEventDTO.deleted(11L, 1L));
+        runSenders();
+
+        assertEquals(List.of("connected", "deleted 10", "deleted 11"), emitters.get(0).sent);
+        assertEquals(List.of("connected"), emitters.get(1).sent);
+    }
+
+    @Test
+    void testOverflowSendsResyncAndClosesTheStream() {
+        broadcaster.subscribe(1L);
+
+        // The sender has not run yet, so "connected" and the events overflow a queue of three
+        for (long taskId = 10; taskId < 14; taskId++) {
+            broadcaster.onTaskEvent(TaskEventDTO.deleted(taskId, 1L));
+        }
+        runSenders();
+
+        RecordingEmitter emitter = emitters.get(0);
+        assertEquals(List.of("resync"), emitter.sent);
+        assertTrue(emitter.completed);
+        assertEquals(1, registry.get("tasks.events.overflows").counter().count());
+        assertEquals(0, registry.get("tasks.events.subscribers").gauge().value());
+
+        broadcaster.onTaskEvent(TaskEventDTO.deleted(14L, 1L));
+        runSenders();
+        assertEquals(List.of("resync"), emitter.sent, "Nothing is sent after the resync");
+    }
+
+    @Test
+    void testOverflowWhileDrainingStillEndsWithResync() {
+        broadcaster.subscribe(1L);
+        RecordingEmitter emitter = emitters.get(0);
+        // The stream falls behind while its sender is busy sending "connected"
+        emitter.onFirstSend = () -> {
+            for (long taskId = 10; taskId < 14; taskId++) {
+                broadcaster.onTaskEvent(TaskEventDTO.deleted(taskId, 1L));
+            }
+        };
+        runSenders();
+
+        assertEquals(List.of("connected", "resync"), emitter.sent);
+        assertTrue(emitter.completed);
+    }
+
+    @Test
+    void testOldestStreamGivesWayBeyondThePerUserLimit() {
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(1L);
+        runSenders();
+
+        assertTrue(emitters.get(0).completed);
+        assertFalse(emitters.get(1).completed);
+        assertFalse(emitters.get(2).completed);
+        assertEquals(2, registry.get("tasks.events.subscribers").gauge().value());
+
+        broadcaster.onTaskEvent(TaskEventDTO.deleted(10L, 1L));
+        runSenders();
+        assertFalse(emitters.get(0).sent.contains("deleted 10"));
+        assertTrue(emitters.get(1).sent.contains("deleted 10"));
+        assertTrue(emitters.get(2).sent.contains("deleted 10"));
+    }
+
+    @Test
+    void testHeartbeatPingsEveryOpenStream() {
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(2L);
+        runSenders();
+
+        broadcaster.heartbeat();
+        runSenders();
+
+        assertEquals(List.of("connected", "ping"), emitters.get(0).sent);
+        assertEquals(List.of("connected", "ping"), emitters.get(1).sent);
+    }
+
+    @Test
+    void testClosingStreamsCompletesThemAll() {
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(2L);
+
+        broadcaster.closeStreams();
+
+        assertTrue(emitters.stream().allMatch(emitter -> emitter.completed));
+        assertEquals(0, registry.get("tasks.events.subscribers").gauge().value());
+    }
+
+    private void runSenders() {
+        Runnable sender;
+        while ((sender = senders.poll()) != null) {
+            sender.run();
+        }
+    }
+
+    // Records each send as "<comment>", "<event name>" or "<event name> <task id>"
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new ArrayList<>();
+        private Runnable onFirstSend;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            String text = builder.build().stream()
+                    .map(part -> part.getData() instanceof TaskEventDTO event ? String.valueOf(event.taskId())
+                            : String.valueOf(part.getData()))
+                    .collect(Collectors.joining());
+            sent.add(describe(text));
+            if (onFirstSend != null) {
+                Runnable action = onFirstSend;
+                onFirstSend = null;
+                action.run();
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        private static String describe(String text) {
+            if (text.startsWith(":")) {
+                return text.substring(1).trim();
+            }
+            String name = text.substring("event:".length(), text.indexOf('\n'));
+            String data = text.substring(text.indexOf("data:") + "data:".length()).trim();
+            return data.isEmpty() || data.equals("{}") ? name : name + " " + data;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.task.services;
+
+import com.example.task.dto.ApiResponse;
+import com.example.task.dto.ResponseShell;
+import com.example.task.dto.TaskEventDTO;
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.repository.TaskFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskListingCacheTest {
+
+    private static final ResponseShell SHELL = ResponseShell.of("Success", "", 200, "task");
+
+    private TaskListingCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new TaskListingCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void testHitServesTheSameBytesWithoutLoading() {
+        TaskListingCache.Listing first = cache.get(TaskFilter.forUser(1L), null, null, () -> load("a"));
+        TaskListingCache.Listing second = cache.get(TaskFilter.forUser(1L), null, null, () -> load("b"));
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertTrue(new String(first.body(), StandardCharsets.UTF_8).contains("\"title\":\"a\""));
+        assertNotNull(first.eTag());
+    }
+
+    @Test
+    void testTaskEventDropsOnlyTheOwnersListings() {
+        cache.get(TaskFilter.forUser(1L), null, null, () -> load("a"));
+        cache.get(TaskFilter.of(1L, null, true), null, null, () -> load("a"));
+        cache.get(TaskFilter.forUser(2L), null, null, () -> load("a"));
+
+        cache.onTaskEvent(TaskEventDTO.deleted(7L, 1L));
+
+        cache.get(TaskFilter.forUser(1L), null, null, () -> load("b"));
+        cache.get(TaskFilter.of(1L, null, true), null, null, () -> load("b"));
+        cache.get(TaskFilter.forUser(2L), null, null, () -> load("b"));
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void testListingLoadedAcrossAnInvalidationIsNotServedAfterwards() {
+        // The write commits while the listing is being read, so what was read is already stale
+        cache.get(TaskFilter.forUser(1L), null, null, () -> {
+            cache.onTaskEvent(TaskEventDTO.deleted(7L, 1L));
+            return load("stale");
+        });
+
+        TaskListingCache.Listing fresh = cache.get(TaskFilter.forUser(1L), null, null, () -> load("fresh"));
+        assertTrue(new String(fresh.body(), StandardCharsets.UTF_8).contains("\"title\":\"fresh\""));
+    }
+
+    @Test
+    void testInvalidationKeepsNoStateForTheUser() {
+        cache.get(TaskFilter.forUser(1L), null, null, () -> load("a"));
+
+        cache.invalidate(1L);
+
+        Cache<?, ?> generations = (Cache<?, ?>) ReflectionTestUtils.getField(cache, "generations");
+        Map<?, ?> keysByUser = (Map<?, ?>) ReflectionTestUtils.getField(cache, "keysByUser");
+        assertEquals(0, generations.asMap().size());
+        assertTrue(keysByUser.isEmpty());
+        // The next generation is a new one, so the old listing is not found again
+        cache.get(TaskFilter.forUser(1L), null, null, () -> load("b"));
+        assertEquals(2, loads.get());
+    }
+
+    private ApiResponse<List<TaskResponseDTO>> load(String title) {
+        loads.incrementAndGet();
+        return ApiResponse.of(SHELL, List.of(new TaskResponseDTO(1L, title, "d", false, new Date(0), 1L, 0L)));
+    }
+}
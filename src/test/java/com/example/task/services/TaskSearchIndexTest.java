@@ -0,0 +1,89 @@
+package com.example.task.services;
+
+import com.example.task.dto.TaskEventDTO;
+import com.example.task.dto.TaskResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSearchIndexTest {
+
+    private final TaskSearchIndex index = new TaskSearchIndex(1000, Duration.ofMinutes(10));
+
+    @Test
+    void testRanksTitleMatchesFirstAndRequiresEveryWord() {
+        load(task(1L, "Buy groceries", "milk and bread for the report"),
+                task(2L, "Quarterly report", "numbers for finance"),
+                task(3L, "Call plumber", "kitchen sink"));
+
+        assertEquals(List.of(2L, 1L), search("report").taskIds());
+        assertEquals(List.of(2L), search("REPORT finance").taskIds());
+        assertEquals(0, search("report plumber").total());
+    }
+
+    @Test
+    void testPrefixQueryAndPaging() {
+        load(task(1L, "Report draft", null),
+                task(2L, "Reporting tool", null),
+                task(3L, "Repair bike", null));
+
+        TaskSearchIndex.Hits hits = index.search(1L, "rep*", 1, 1, Stream::empty);
+        assertEquals(3, hits.total());
+        assertEquals(1, hits.taskIds().size());
+        assertEquals(2, search("report*").total());
+    }
+
+    @Test
+    void testEventsKeepTheIndexCurrent() {
+        load(task(1L, "Old title", null));
+
+        index.onTaskEvent(TaskEventDTO.updated(task(1L, "New title", null)));
+        index.onTaskEvent(TaskEventDTO.created(task(2L, "Another new one", null)));
+        assertEquals(0, search("old").total());
+        assertEquals(2, search("new").total());
+
+        index.onTaskEvent(TaskEventDTO.deleted(1L, 1L));
+        assertEquals(List.of(2L), search("new").taskIds());
+    }
+
+    @Test
+    void testBlankOrPunctuationOnlyQueryMatchesNothing() {
+        load(task(1L, "Anything", null));
+
+        assertEquals(0, search("  ").total());
+        assertEquals(0, search("*** --").total());
+    }
+
+    @Test
+    void testIndexMissingAnEventIsReloadedAfterItsTtl() throws InterruptedException {
+        TaskSearchIndex expiring = new TaskSearchIndex(1000, Duration.ofMillis(50));
+        expiring.search(1L, "title", 0, 10, () -> Stream.of(task(1L, "Old title", null)));
+
+        // The update event was lost on the way from another instance
+        Supplier<Stream<TaskResponseDTO>> current = () -> Stream.of(task(1L, "New title", null));
+        assertEquals(0, expiring.search(1L, "new", 0, 10, current).total());
+
+        Thread.sleep(100);
+        assertEquals(List.of(1L), expiring.search(1L, "new", 0, 10, current).taskIds());
+    }
+
+    private void load(TaskResponseDTO... tasks) {
+        index.search(1L, "warmup", 0, 1, () -> Stream.of(tasks));
+    }
+
+    private TaskSearchIndex.Hits search(String query) {
+        return index.search(1L, query, 0, 10, () -> {
+            throw new AssertionError("Index should already be loaded");
+        });
+    }
+
+    private static TaskResponseDTO task(Long id, String title, String description) {
+        return new TaskResponseDTO(id, title, description, false, new Date(), 1L);
+    }
+}
@@ -1,15 +1,27 @@
 package com.example.task.services;
 
+import com.example.task.dto.BulkItemResultDTO;
+import com.example.task.dto.BulkResultDTO;
+import com.example.task.dto.TaskEventDTO;
+import com.example.task.dto.TaskPageDTO;
 import com.example.task.dto.TaskResponseDTO;
 import com.example.task.entity.Task;
+import com.example.task.entity.TaskChange;
 import com.example.task.entity.User;
+import com.example.task.exception.TaskVersionMismatchException;
+import com.example.task.repository.TaskChangeRepository;
+import com.example.task.repository.TaskFilter;
 import com.example.task.repository.TaskRepository;
 import com.example.task.repository.UserRepository;
+import com.example.task.utils.TaskCursor;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
@@ -24,6 +36,15 @@ public class TaskServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TaskChangeRepository taskChangeRepository;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -34,22 +55,10 @@ public class TaskServiceTest {
 
     @Test
     void testGetAllTasks() {
-        User user = new User();
-        user.setId(1L);
-        user.setName("Test User");
-
-        Task task1 = new Task();
-        task1.setId(1L);
-        task1.setTitle("Task 1");
-        task1.setUser(user);
-
-        Task task2 = new Task();
-        task2.setId(2L);
-        task2.setTitle("Task 2");
-        task2.setUser(user);
-
-        List<Task> tasks = List.of(task1, task2);
-        when(taskRepository.findByDateAndCompletedOptional(null,null,1L)).thenReturn(tasks);
+        List<TaskResponseDTO> tasks = List.of(
+                new TaskResponseDTO(1L, "Task 1", "First", false, new Date(), 1L),
+                new TaskResponseDTO(2L, "Task 2", "Second", true, new Date(), 1L));
+        when(taskRepository.findViews(TaskFilter.forUser(1L))).thenReturn(tasks);
 
         List<TaskResponseDTO> result = taskService.getAllTasks(1L);
 
@@ -58,17 +67,27 @@ public class TaskServiceTest {
         assertEquals(1L, result.get(0).getUserId());
     }
 
+    @Test
+    void testGetTaskPage() {
+        List<TaskResponseDTO> rows = new ArrayList<>();
+        for (long i = 11; i <= 13; i++) {
+            rows.add(new TaskResponseDTO(i, "Task " + i, "Description", false, new Date(), 1L));
+        }
+        when(taskRepository.findViewPage(TaskFilter.of(1L, null, null), 10L, 3)).thenReturn(rows);
+
+        TaskPageDTO page = taskService.getTaskPage(TaskFilter.forUser(1L), TaskCursor.encode(10L), 2);
+
+        assertEquals(2, page.getTasks().size());
+        assertEquals(12L, page.getTasks().get(1).getId());
+        assertEquals(12L, TaskCursor.decode(page.getNextCursor()));
+    }
 
     @Test
     void testGetTaskById() {
-        Task task = new Task();
-        task.setId(1L);
-        task.setTitle("Test Task");
-        task.setUser(new User());
+        TaskResponseDTO task = new TaskResponseDTO(1L, "Test Task", "Description", false, new Date(), 1L);
+        when(taskRepository.findOwnedViewById(1L, 1L)).thenReturn(Optional.of(task));
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-
-        Optional<TaskResponseDTO> result = taskService.getTaskById(1L);
+        Optional<TaskResponseDTO> result = taskService.getTaskById(1L, 1L);
         assertTrue(result.isPresent());
         assertEquals("Test Task", result.get().getTitle());
     }
@@ -81,44 +100,136 @@ public class TaskServiceTest {
         Task task = new Task();
         task.setId(1L);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.adjustTasksCount(1L, 1)).thenReturn(1);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(taskRepository.save(task)).thenReturn(task);
 
         Optional<TaskResponseDTO> result = taskService.saveTask(task, 1L);
         assertTrue(result.isPresent());
+        assertEquals(1L, result.get().getUserId());
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
-    void testUpdateTask() {
-        User user = new User();
-        user.setId(100L);
-        user.setName("Test User");
+    void testSaveTaskForUnknownUser() {
+        when(userRepository.adjustTasksCount(9L, 1)).thenReturn(0);
+
+        Optional<TaskResponseDTO> result = taskService.saveTask(new Task(), 9L);
+        assertTrue(result.isEmpty());
+        verify(taskRepository, never()).save(any());
+    }
 
+    @Test
+    void testUpdateTask() {
         Task task = new Task();
         task.setId(1L);
         task.setTitle("Test Task");
-        task.setUser(user);
+        task.setDate(new Date());
 
-        Task stored = new Task();
-        stored.setId(1L);
-        stored.setUser(user);
-
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(stored));
-        when(taskRepository.save(any(Task.class))).thenReturn(stored);
+        when(taskRepository.updateOwned(task, 100L, 3L)).thenReturn(1);
 
-        Optional<TaskResponseDTO> result = taskService.updateTask(task);
+        Optional<TaskResponseDTO> result = taskService.updateTask(task, 100L, 3L);
         assertTrue(result.isPresent());
-        assertEquals("Test Task", stored.getTitle());
+        assertEquals("Test Task", result.get().getTitle());
+        assertEquals(100L, result.get().getUserId());
+        assertEquals(4L, result.get().getVersion());
+        verify(taskRepository, never()).findById(any());
+        InOrder inOrder = inOrder(userRepository, taskRepository, taskChangeRepository);
+        inOrder.verify(userRepository).lockForTaskChanges(100L);
+        inOrder.verify(taskRepository).updateOwned(task, 100L, 3L);
+        inOrder.verify(taskChangeRepository).record(100L, List.of(1L), TaskChange.Type.UPSERT);
     }
 
     @Test
-    void testDeleteTask() {
+    void testUpdateTaskWithStaleVersion() {
         Task task = new Task();
         task.setId(1L);
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.updateOwned(task, 100L, 2L)).thenReturn(0);
+        when(taskRepository.existsByIdAndUserId(1L, 100L)).thenReturn(true);
 
-        boolean result = taskService.deleteTask(1L);
+        assertThrows(TaskVersionMismatchException.class, () -> taskService.updateTask(task, 100L, 2L));
+    }
+
+    @Test
+    void testUpdateTaskOfAnotherUser() {
+        Task task = new Task();
+        task.setId(1L);
+        when(taskRepository.updateOwned(task, 200L, null)).thenReturn(0);
+
+        assertTrue(taskService.updateTask(task, 200L, null).isEmpty());
+        verify(taskRepository, never()).existsByIdAndUserId(any(), any());
+    }
+
+    @Test
+    void testDeleteTask() {
+        when(taskRepository.deleteOwned(1L, 100L)).thenReturn(1);
+
+        boolean result = taskService.deleteTask(1L, 100L);
         assertTrue(result);
-        verify(taskRepository, times(1)).delete(task);
+        verify(taskRepository, never()).findById(any());
+        verify(userRepository, times(1)).adjustTasksCount(100L, -1);
+        verify(taskChangeRepository, times(1)).record(100L, List.of(1L), TaskChange.Type.DELETE);
+        verify(eventPublisher, times(1)).publishEvent(TaskEventDTO.deleted(1L, 100L));
+    }
+
+    @Test
+    void testDeleteTaskOfAnotherUser() {
+        when(taskRepository.deleteOwned(1L, 200L)).thenReturn(0);
+
+        assertFalse(taskService.deleteTask(1L, 200L));
+        verify(userRepository, never()).adjustTasksCount(any(), anyInt());
+    }
+
+    @Test
+    void testCreateTasks() {
+        User user = new User();
+        user.setId(1L);
+        List<Task> tasks = List.of(new Task(), new Task());
+
+        when(userRepository.adjustTasksCount(1L, 2)).thenReturn(1);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
+        BulkResultDTO result = taskService.createTasks(tasks, 1L);
+
+        assertEquals(2, result.getSucceeded());
+        assertEquals(BulkItemResultDTO.CREATED, result.getItems().get(0).getStatus());
+        verify(taskRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void testUpdateTasksSkipsTasksOfAnotherUser() {
+        User owner = new User();
+        owner.setId(100L);
+        Task stored = new Task();
+        stored.setId(1L);
+        stored.setUser(owner);
+        Task mine = new Task();
+        mine.setId(1L);
+        mine.setTitle("Mine");
+        Task theirs = new Task();
+        theirs.setId(2L);
+        theirs.setTitle("Theirs");
+        when(taskRepository.findOwnedByIds(100L, List.of(1L, 2L))).thenReturn(List.of(stored));
+
+        BulkResultDTO result = taskService.updateTasks(List.of(mine, theirs), 100L);
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals("Mine", stored.getTitle());
+        assertEquals(BulkItemResultDTO.NOT_FOUND, result.getItems().get(1).getStatus());
+        verify(userRepository, times(1)).lockForTaskChanges(100L);
+        verify(taskChangeRepository, times(1)).record(100L, List.of(1L), TaskChange.Type.UPSERT);
+    }
+
+    @Test
+    void testDeleteTasks() {
+        // Task 2 exists but belongs to someone else, so the owner-scoped lookup leaves it out
+        when(taskRepository.findOwnedIds(100L, List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        BulkResultDTO result = taskService.deleteTasks(List.of(1L, 2L), 100L);
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(BulkItemResultDTO.NOT_FOUND, result.getItems().get(1).getStatus());
+        verify(taskRepository, times(1)).deleteOwned(Set.of(1L), 100L);
+        verify(userRepository, times(1)).adjustTasksCount(100L, -1);
     }
 }
@@ -0,0 +1,116 @@
+package com.example.task.services;
+
+import com.example.task.dto.TaskResponseDTO;
+import com.example.task.dto.TaskSyncDTO;
+import com.example.task.entity.TaskChange;
+import com.example.task.exception.SyncTokenExpiredException;
+import com.example.task.repository.TaskChangeRepository;
+import com.example.task.repository.TaskRepository;
+import com.example.task.utils.SyncToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskSyncServiceTest {
+
+    @Mock
+    private TaskChangeRepository taskChangeRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private JobLocks jobLocks;
+
+    @InjectMocks
+    private TaskSyncService taskSyncService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jobLocks.tryLock(any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void testSyncReturnsOnlyChangesSinceToken() {
+        String token = new SyncToken(10L).encode();
+        when(taskChangeRepository.findOldestId()).thenReturn(11L);
+        when(taskChangeRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(1L, 10L, Limit.of(1001))).thenReturn(List.of(
+                change(11L, 5L, TaskChange.Type.UPSERT),
+                change(12L, 6L, TaskChange.Type.UPSERT),
+                change(13L, 5L, TaskChange.Type.UPSERT),
+                change(14L, 6L, TaskChange.Type.DELETE),
+                change(15L, 7L, TaskChange.Type.UPSERT)));
+        // Task 7 was deleted after the last change read here
+        when(taskRepository.findOwnedViewsByIds(1L, List.of(5L, 7L))).thenReturn(List.of(
+                new TaskResponseDTO(5L, "Task 5", "Description", false, new Date(), 1L, 2L)));
+
+        TaskSyncDTO sync = taskSyncService.sync(1L, token);
+
+        assertFalse(sync.isReset());
+        assertEquals(List.of(5L), sync.getUpdated().stream().map(TaskResponseDTO::getId).toList());
+        assertEquals(List.of(6L, 7L), sync.getDeleted());
+        assertEquals(15L, SyncToken.decode(sync.getSyncToken()).changeId());
+        assertFalse(sync.isHasMore());
+    }
+
+    @Test
+    void testTokenBehindPurgedChangesRequiresFullSync() {
+        String token = new SyncToken(10L).encode();
+        // Change 11 was purged, however recently the token was issued
+        when(taskChangeRepository.findOldestId()).thenReturn(12L);
+
+        assertThrows(SyncTokenExpiredException.class, () -> taskSyncService.sync(1L, token));
+        verify(taskChangeRepository, never()).findByUserIdAndIdGreaterThanOrderByIdAsc(any(), any(), any());
+    }
+
+    @Test
+    void testFullSyncStartsPastPurgedChanges() {
+        // This user's own changes were all purged
+        when(taskChangeRepository.findLatestId(1L)).thenReturn(0L);
+        when(taskChangeRepository.findOldestId()).thenReturn(500L);
+        when(taskRepository.findViews(any())).thenReturn(List.of());
+
+        TaskSyncDTO snapshot = taskSyncService.sync(1L, null);
+        assertTrue(snapshot.isReset());
+        assertEquals(499L, SyncToken.decode(snapshot.getSyncToken()).changeId());
+
+        when(taskChangeRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(1L, 499L, Limit.of(1001))).thenReturn(List.of());
+        assertFalse(taskSyncService.sync(1L, snapshot.getSyncToken()).isReset(), "The new token must not expire at once");
+    }
+
+    @Test
+    void testPurgeOnlyRemovesIdsBeforeTheFirstRecentChange() {
+        when(taskChangeRepository.findFirstIdSince(any())).thenReturn(40L);
+        when(taskChangeRepository.deleteOlderThan(eq(40L), any())).thenReturn(39);
+
+        assertEquals(39, taskSyncService.purgeChanges());
+    }
+
+    @Test
+    void testPurgeKeepsTheLogWithoutRecentChanges() {
+        when(taskChangeRepository.findFirstIdSince(any())).thenReturn(null);
+
+        assertEquals(0, taskSyncService.purgeChanges());
+        verify(taskChangeRepository, never()).deleteOlderThan(anyLong(), any());
+    }
+
+    private static TaskChange change(Long id, Long taskId, TaskChange.Type type) {
+        TaskChange change = new TaskChange();
+        change.setId(id);
+        change.setUserId(1L);
+        change.setTaskId(taskId);
+        change.setType(type);
+        return change;
+    }
+}
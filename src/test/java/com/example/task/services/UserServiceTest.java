@@ -2,14 +2,28 @@ package com.example.task.services;
 
 
 
+import com.example.task.dto.PageDTO;
+import com.example.task.dto.TaskPageDTO;
+import com.example.task.dto.TaskResponseDTO;
 import com.example.task.dto.UserResponseDTO;
+import com.example.task.dto.UserTasksDTO;
 import com.example.task.entity.User;
+import com.example.task.exception.InvalidSortException;
+import com.example.task.repository.TaskChangeRepository;
+import com.example.task.repository.TaskFilter;
 import com.example.task.repository.UserRepository;
+import com.example.task.utils.JwtTokenCache;
+import com.example.task.utils.TokenRevocationList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 
@@ -21,6 +35,27 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private JwtTokenCache tokenCache;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private TokenRevocationList revocations;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TaskChangeRepository taskChangeRepository;
+
+    @Mock
+    private TaskListingCache taskListingCache;
+
+    @Mock
+    private ClusterCacheSync clusterCacheSync;
+
     @InjectMocks
     private UserService userService;
 
@@ -30,14 +65,36 @@ public class UserServiceTest {
     }
 
     @Test
-    void testGetUserAll() {
+    void testGetUserWithTasks() {
         User user = new User();
         user.setId(1L);
+        user.setName("Test User");
+        TaskPageDTO tasks = new TaskPageDTO(List.of(new TaskResponseDTO()), "next");
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(taskService.getTaskPage(TaskFilter.forUser(1L), null, 10)).thenReturn(tasks);
 
-        Optional<User> result = userService.getUserAll(1L);
+        Optional<UserTasksDTO> result = userService.getUserWithTasks(1L, null, 10);
         assertTrue(result.isPresent());
-        assertEquals(1L, result.get().getId());
+        assertEquals("Test User", result.get().getName());
+        assertSame(tasks, result.get().getTasks());
+    }
+
+    @Test
+    void testGetUserPage() {
+        PageRequest expected = PageRequest.of(2, 5, Sort.by(Sort.Direction.DESC, "tasksCount").and(Sort.by("id")));
+        when(userRepository.findSummaries(expected))
+                .thenReturn(new PageImpl<>(List.of(new UserResponseDTO(1L, "Test User", 3)), expected, 11));
+
+        PageDTO<UserResponseDTO> result = userService.getUserPage(2, 5, "tasksCount,desc");
+        assertEquals(1, result.getContent().size());
+        assertEquals(11, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+    }
+
+    @Test
+    void testGetUserPageRejectsUnknownSort() {
+        assertThrows(InvalidSortException.class, () -> userService.getUserPage(0, 5, "password"));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -87,10 +144,56 @@ public class UserServiceTest {
     void testDeleteUser() {
         User user = new User();
         user.setId(1L);
+        user.setUsername("alice");
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         boolean result = userService.deleteUser(1L);
         assertTrue(result);
         verify(userRepository, times(1)).delete(user);
+        verify(tokenCache, times(1)).evictUser("alice");
+        verify(revocations, times(1)).revokeUser("alice");
+        verify(refreshTokenService, times(1)).revokeAllForUser(1L);
+        verify(taskChangeRepository, times(1)).deleteByUserId(1L);
+        verify(taskListingCache, times(1)).invalidate(1L);
+        verify(clusterCacheSync, times(1)).userChanged(1L);
+    }
+
+    @Test
+    void testDeleteUserRevokesTokensInsideTheDeleteTransaction() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.deleteUser(1L);
+            // Stored with the delete, so it commits or rolls back with it
+            verify(revocations, times(1)).revokeUser("alice");
+            verify(tokenCache, never()).evictUser(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(tokenCache, times(1)).evictUser("alice");
+    }
+
+    @Test
+    void testDeleteUserRolledBackKeepsCachedTokens() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.deleteUser(1L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(tokenCache, never()).evictUser(any());
     }
 }
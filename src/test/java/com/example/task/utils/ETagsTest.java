@@ -0,0 +1,34 @@
+package com.example.task.utils;
+
+import com.example.task.dto.TaskResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ETagsTest {
+
+    @Test
+    void testListingTagChangesWithAnyVersion() {
+        TaskResponseDTO first = new TaskResponseDTO(1L, "a", "d", false, new Date(), 1L, 0L);
+        TaskResponseDTO second = new TaskResponseDTO(2L, "b", "d", false, new Date(), 1L, 4L);
+        TaskResponseDTO secondUpdated = new TaskResponseDTO(2L, "b", "d", true, new Date(), 1L, 5L);
+
+        String tag = ETags.forListing(List.of(first, second), null);
+        assertEquals(tag, ETags.forListing(List.of(first, second), null));
+        assertNotEquals(tag, ETags.forListing(List.of(first, secondUpdated), null));
+        assertNotEquals(tag, ETags.forListing(List.of(first), null));
+        assertNotEquals(tag, ETags.forListing(List.of(first, second), "next"));
+    }
+
+    @Test
+    void testParseVersion() {
+        assertEquals(7L, ETags.parseVersion(ETags.forVersion(7)));
+        assertNull(ETags.parseVersion(null));
+        assertNull(ETags.parseVersion("*"));
+        assertEquals(-1L, ETags.parseVersion("W/\"7\""));
+        assertEquals(-1L, ETags.parseVersion("\"abc\""));
+    }
+}
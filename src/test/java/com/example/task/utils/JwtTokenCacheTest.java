@@ -0,0 +1,56 @@
+package com.example.task.utils;
+
+import com.example.task.services.LocalClusterBus;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenCacheTest {
+
+    private final UserDetails alice =
+            new User("alice", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+    @Test
+    void testCachedTokenIsReturnedUntilEvicted() {
+        JwtTokenCache cache = new JwtTokenCache(100, Duration.ofMinutes(5), new LocalClusterBus());
+        cache.put("token-a", alice, new Date(System.currentTimeMillis() + 60_000));
+
+        assertSame(alice, cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+
+        cache.evictUser("alice");
+        assertNull(cache.get("token-a"));
+    }
+
+    @Test
+    void testExpiredTokenIsNotCached() {
+        JwtTokenCache cache = new JwtTokenCache(100, Duration.ofMinutes(5), new LocalClusterBus());
+        cache.put("token-a", alice, new Date(System.currentTimeMillis() - 1));
+
+        assertNull(cache.get("token-a"));
+    }
+
+    @Test
+    void testEvictionReachesOtherInstances() {
+        LocalClusterBus.Network network = new LocalClusterBus.Network();
+        JwtTokenCache here = new JwtTokenCache(100, Duration.ofMinutes(5), new LocalClusterBus(network));
+        JwtTokenCache there = new JwtTokenCache(100, Duration.ofMinutes(5), new LocalClusterBus(network));
+        Date expiry = new Date(System.currentTimeMillis() + 60_000);
+        there.put("token-a", alice, expiry);
+        there.put("token-b", alice, expiry);
+
+        here.evict("token-a");
+        assertNull(there.get("token-a"));
+        assertSame(alice, there.get("token-b"));
+
+        here.evictUser("alice");
+        assertNull(there.get("token-b"));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.task.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimedPasswordEncoderTest {
+
+    @Test
+    void testRecordsEncodeAndMatches() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TimedPasswordEncoder encoder = new TimedPasswordEncoder(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return "{stub}" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        }, registry);
+
+        String encoded = encoder.encode("secret");
+        assertTrue(encoder.matches("secret", encoded));
+        assertFalse(encoder.matches("wrong", encoded));
+
+        assertEquals(1, registry.get("auth.password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("auth.password.hashing").tag("operation", "matches").timer().count());
+    }
+}
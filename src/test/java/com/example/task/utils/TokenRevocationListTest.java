@@ -0,0 +1,36 @@
+package com.example.task.utils;
+
+import com.example.task.services.LocalClusterBus;
+import com.example.task.services.LocalRevocationStore;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenRevocationListTest {
+
+    @Test
+    void testRevocationReachesOtherInstances() {
+        LocalClusterBus.Network network = new LocalClusterBus.Network();
+        TokenRevocationList here = new TokenRevocationList(Duration.ofMinutes(15), new LocalClusterBus(network),
+                new LocalRevocationStore());
+        TokenRevocationList there = new TokenRevocationList(Duration.ofMinutes(15), new LocalClusterBus(network),
+                new LocalRevocationStore());
+        Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+
+        here.revoke(claims("jti-1", "bob", issuedAt));
+        assertTrue(there.isRevoked(claims("jti-1", "bob", issuedAt)));
+        assertFalse(there.isRevoked(claims("jti-2", "alice", issuedAt)));
+
+        here.revokeUser("alice");
+        assertTrue(there.isRevoked(claims("jti-2", "alice", issuedAt)));
+        assertFalse(there.isRevoked(claims("jti-3", "alice", new Date(System.currentTimeMillis() + 1000))));
+    }
+
+    private static JwtClaims claims(String id, String subject, Date issuedAt) {
+        return new JwtClaims(Jwts.claims().setId(id).setSubject(subject).setIssuedAt(issuedAt));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.task.utils;
+
+import com.example.task.repository.ClusterMessageRepository;
+import com.example.task.repository.TokenRevocationRepository;
+import com.example.task.services.JdbcClusterBus;
+import com.example.task.services.JdbcRevocationStore;
+import com.example.task.services.LocalJobLocks;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Revocation lists of two instances sharing one H2 database through the jdbc provider. Not
+ * transactional: revocations commit on their own, as they do from a request.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:revocations;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+public class TokenRevocationStoreTest {
+
+    @Autowired
+    private ClusterMessageRepository messageRepository;
+
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testRevocationsHoldOnAnInstanceStartedAfterThem() {
+        JdbcClusterBus here = bus();
+        here.poll();
+        TokenRevocationList revokedHere = revocationList(here);
+        Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+
+        revokedHere.revoke(claims("jti-1", "bob", issuedAt));
+        revokedHere.revokeUser("alice");
+
+        // Joins after the messages were sent, so its bus starts past them and only the store can tell it
+        JdbcClusterBus there = bus();
+        there.poll();
+        TokenRevocationList revokedThere = revocationList(there);
+        there.poll();
+
+        assertTrue(revokedThere.isRevoked(claims("jti-1", "bob", issuedAt)));
+        assertTrue(revokedThere.isRevoked(claims("jti-2", "alice", issuedAt)));
+        assertFalse(revokedThere.isRevoked(claims("jti-3", "bob", issuedAt)));
+        assertFalse(revokedThere.isRevoked(claims("jti-4", "alice", new Date(System.currentTimeMillis() + 1000))));
+    }
+
+    @Test
+    void testRevocationRolledBackWithItsTransactionLeavesNothing() {
+        JdbcClusterBus here = bus();
+        here.poll();
+        TokenRevocationList revokedHere = revocationList(here);
+        JdbcClusterBus there = bus();
+        there.poll();
+        TokenRevocationList revokedThere = revocationList(there);
+        Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            revokedHere.revokeUser("dave");
+            status.setRollbackOnly();
+        });
+        there.poll();
+
+        assertFalse(revokedHere.isRevoked(claims("jti-5", "dave", issuedAt)));
+        assertFalse(revokedThere.isRevoked(claims("jti-5", "dave", issuedAt)));
+    }
+
+    @Test
+    void testExpiredRevocationsArePurged() {
+        TokenRevocationList revocations = new TokenRevocationList(Duration.ofMillis(1), bus(), store());
+        Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+        revocations.revokeUser("carol");
+        sleep();
+
+        store().purge();
+
+        assertFalse(revocationRepository.existsCovering(null, "carol", issuedAt.getTime(), Instant.EPOCH));
+    }
+
+    private TokenRevocationList revocationList(JdbcClusterBus bus) {
+        return new TokenRevocationList(Duration.ofMinutes(15), bus, store());
+    }
+
+    private JdbcRevocationStore store() {
+        return new JdbcRevocationStore(revocationRepository, transactionManager, new LocalJobLocks(), Duration.ofMinutes(10));
+    }
+
+    private JdbcClusterBus bus() {
+        return new JdbcClusterBus(messageRepository, transactionManager, 2, Duration.ofMinutes(10), new LocalJobLocks(),
+                Duration.ofMinutes(10));
+    }
+
+    private static JwtClaims claims(String id, String subject, Date issuedAt) {
+        return new JwtClaims(Jwts.claims().setId(id).setSubject(subject).setIssuedAt(issuedAt));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}